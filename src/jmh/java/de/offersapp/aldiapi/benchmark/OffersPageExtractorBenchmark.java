@@ -0,0 +1,100 @@
+package de.offersapp.aldiapi.benchmark;
+
+import de.offersapp.aldiapi.domain.Offer;
+import de.offersapp.aldiapi.service.crawler.OffersPageExtractor;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.select.Elements;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the Jsoup extraction path, run against the pages saved in {@code src/test/resources/crawler/pages}.
+ * <p>
+ * Run them with {@code ./mvnw -Pbenchmark verify -DskipTests}, so that the tests do not run first; the results are
+ * written to {@code target/jmh-result.json}.
+ * <p>
+ * {@link OffersPageExtractor#extractFreshOffers(Document)} and {@link OffersPageExtractor#extractWeeklyOffers(Document)}
+ * are still stubs returning no offers, so {@link #extractOffers()} only measures the dispatch between them and
+ * {@link #parseAndExtractOffers()} little more than {@link #parsePage()}: neither is the cost of a real extraction.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OffersPageExtractorBenchmark {
+
+    private static final String BASE_URI = "https://www.aldi-sued.de";
+
+    @Param({"angebote.html", "frischekracher.html", "aktion-montag.html"})
+    public String page;
+
+    private final OffersPageExtractor offersPageExtractor = new OffersPageExtractor();
+
+    private String html;
+
+    private Document document;
+
+    @Setup
+    public void setUp() throws IOException {
+        try (InputStream in = new ClassPathResource("crawler/pages/" + page).getInputStream()) {
+            html = StreamUtils.copyToString(in, StandardCharsets.UTF_8);
+        }
+        document = Jsoup.parse(html, BASE_URI);
+    }
+
+    @Benchmark
+    public Document parsePage() {
+        return Jsoup.parse(html, BASE_URI);
+    }
+
+    @Benchmark
+    public Elements selectOffersPages() {
+        return document.select(OffersPageExtractor.OFFERS_PAGES_SELECTOR);
+    }
+
+    @Benchmark
+    public Elements selectFreshOffers() {
+        return document.select(OffersPageExtractor.FRESH_OFFERS_SELECTOR);
+    }
+
+    @Benchmark
+    public List<String> extractOffersPages() {
+        return offersPageExtractor.extractOffersPages(document);
+    }
+
+    /**
+     * Measures the stubbed extraction, see the class documentation.
+     */
+    @Benchmark
+    public List<Offer> extractOffers() {
+        return offersPageExtractor.extractOffers(document);
+    }
+
+    /**
+     * Measures the parsing and the stubbed extraction, see the class documentation.
+     */
+    @Benchmark
+    public List<Offer> parseAndExtractOffers() {
+        return offersPageExtractor.extractOffers(Jsoup.parse(html, BASE_URI));
+    }
+}
@@ -2,6 +2,11 @@ package de.offersapp.aldiapi.config;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 /**
  * Properties specific to Aldi Api.
  * <p>
@@ -10,4 +15,356 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
  */
 @ConfigurationProperties(prefix = "application", ignoreUnknownFields = false)
 public class ApplicationProperties {
+
+    private final Crawler crawler = new Crawler();
+
+    private final Picture picture = new Picture();
+
+    private final OfferArchive offerArchive = new OfferArchive();
+
+    private final SearchIndex searchIndex = new SearchIndex();
+
+    public Crawler getCrawler() {
+        return crawler;
+    }
+
+    public Picture getPicture() {
+        return picture;
+    }
+
+    public OfferArchive getOfferArchive() {
+        return offerArchive;
+    }
+
+    public SearchIndex getSearchIndex() {
+        return searchIndex;
+    }
+
+    public static class SearchIndex {
+
+        private boolean synchronous = false;
+
+        private int batchSize = 500;
+
+        private Duration flushInterval = Duration.ofSeconds(1);
+
+        private Duration pollInterval = Duration.ofSeconds(30);
+
+        private int reindexParallelism = 4;
+
+        private final Crawler.Retry retry = new Crawler.Retry();
+
+        public boolean isSynchronous() {
+            return synchronous;
+        }
+
+        public void setSynchronous(boolean synchronous) {
+            this.synchronous = synchronous;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public Duration getFlushInterval() {
+            return flushInterval;
+        }
+
+        public void setFlushInterval(Duration flushInterval) {
+            this.flushInterval = flushInterval;
+        }
+
+        public Duration getPollInterval() {
+            return pollInterval;
+        }
+
+        public void setPollInterval(Duration pollInterval) {
+            this.pollInterval = pollInterval;
+        }
+
+        public int getReindexParallelism() {
+            return reindexParallelism;
+        }
+
+        public void setReindexParallelism(int reindexParallelism) {
+            this.reindexParallelism = reindexParallelism;
+        }
+
+        public Crawler.Retry getRetry() {
+            return retry;
+        }
+    }
+
+    public static class OfferArchive {
+
+        private String cron = "-";
+
+        private Duration retention = Duration.ofDays(7);
+
+        private int batchSize = 500;
+
+        public String getCron() {
+            return cron;
+        }
+
+        public void setCron(String cron) {
+            this.cron = cron;
+        }
+
+        public Duration getRetention() {
+            return retention;
+        }
+
+        public void setRetention(Duration retention) {
+            this.retention = retention;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+    }
+
+    public static class Picture {
+
+        private String cacheDirectory = "target/pictures";
+
+        private List<Integer> thumbnailSizes = new ArrayList<>(Arrays.asList(128, 256, 512));
+
+        private Duration maxAge = Duration.ofDays(365);
+
+        public String getCacheDirectory() {
+            return cacheDirectory;
+        }
+
+        public void setCacheDirectory(String cacheDirectory) {
+            this.cacheDirectory = cacheDirectory;
+        }
+
+        public List<Integer> getThumbnailSizes() {
+            return thumbnailSizes;
+        }
+
+        public void setThumbnailSizes(List<Integer> thumbnailSizes) {
+            this.thumbnailSizes = thumbnailSizes;
+        }
+
+        public Duration getMaxAge() {
+            return maxAge;
+        }
+
+        public void setMaxAge(Duration maxAge) {
+            this.maxAge = maxAge;
+        }
+    }
+
+    public static class Crawler {
+
+        private int parallelism = 4;
+
+        private int timeout = 10000;
+
+        private String cacheDirectory = "target/crawler/pages";
+
+        private int maxResourceSize = 5 * 1024 * 1024;
+
+        private String checkpointFile = "target/crawler/checkpoint.json";
+
+        private Duration checkpointMaxAge = Duration.ofHours(12);
+
+        private final Archive archive = new Archive();
+
+        private final RateLimit rateLimit = new RateLimit();
+
+        private final Retry retry = new Retry();
+
+        private final Schedule schedule = new Schedule();
+
+        public int getParallelism() {
+            return parallelism;
+        }
+
+        public void setParallelism(int parallelism) {
+            this.parallelism = parallelism;
+        }
+
+        public int getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(int timeout) {
+            this.timeout = timeout;
+        }
+
+        public String getCacheDirectory() {
+            return cacheDirectory;
+        }
+
+        public void setCacheDirectory(String cacheDirectory) {
+            this.cacheDirectory = cacheDirectory;
+        }
+
+        public int getMaxResourceSize() {
+            return maxResourceSize;
+        }
+
+        public void setMaxResourceSize(int maxResourceSize) {
+            this.maxResourceSize = maxResourceSize;
+        }
+
+        public String getCheckpointFile() {
+            return checkpointFile;
+        }
+
+        public void setCheckpointFile(String checkpointFile) {
+            this.checkpointFile = checkpointFile;
+        }
+
+        public Duration getCheckpointMaxAge() {
+            return checkpointMaxAge;
+        }
+
+        public void setCheckpointMaxAge(Duration checkpointMaxAge) {
+            this.checkpointMaxAge = checkpointMaxAge;
+        }
+
+        public Archive getArchive() {
+            return archive;
+        }
+
+        public RateLimit getRateLimit() {
+            return rateLimit;
+        }
+
+        public Retry getRetry() {
+            return retry;
+        }
+
+        public Schedule getSchedule() {
+            return schedule;
+        }
+
+        public static class RateLimit {
+
+            private double requestsPerSecond = 1.0;
+
+            private int burst = 2;
+
+            public double getRequestsPerSecond() {
+                return requestsPerSecond;
+            }
+
+            public void setRequestsPerSecond(double requestsPerSecond) {
+                this.requestsPerSecond = requestsPerSecond;
+            }
+
+            public int getBurst() {
+                return burst;
+            }
+
+            public void setBurst(int burst) {
+                this.burst = burst;
+            }
+        }
+
+        public static class Retry {
+
+            private int maxAttempts = 4;
+
+            private long initialBackoff = 1000;
+
+            private long maxBackoff = 60000;
+
+            public int getMaxAttempts() {
+                return maxAttempts;
+            }
+
+            public void setMaxAttempts(int maxAttempts) {
+                this.maxAttempts = maxAttempts;
+            }
+
+            public long getInitialBackoff() {
+                return initialBackoff;
+            }
+
+            public void setInitialBackoff(long initialBackoff) {
+                this.initialBackoff = initialBackoff;
+            }
+
+            public long getMaxBackoff() {
+                return maxBackoff;
+            }
+
+            public void setMaxBackoff(long maxBackoff) {
+                this.maxBackoff = maxBackoff;
+            }
+        }
+
+        public static class Schedule {
+
+            private String cron = "-";
+
+            private String retryCron = "-";
+
+            private long maxJitter = 300000;
+
+            public String getCron() {
+                return cron;
+            }
+
+            public void setCron(String cron) {
+                this.cron = cron;
+            }
+
+            public String getRetryCron() {
+                return retryCron;
+            }
+
+            public void setRetryCron(String retryCron) {
+                this.retryCron = retryCron;
+            }
+
+            public long getMaxJitter() {
+                return maxJitter;
+            }
+
+            public void setMaxJitter(long maxJitter) {
+                this.maxJitter = maxJitter;
+            }
+        }
+
+        public static class Archive {
+
+            public enum Mode {
+                OFF, RECORD, REPLAY
+            }
+
+            private Mode mode = Mode.OFF;
+
+            private String path = "target/crawler/archive.jsonl.gz";
+
+            public Mode getMode() {
+                return mode;
+            }
+
+            public void setMode(Mode mode) {
+                this.mode = mode;
+            }
+
+            public String getPath() {
+                return path;
+            }
+
+            public void setPath(String path) {
+                this.path = path;
+            }
+        }
+    }
 }
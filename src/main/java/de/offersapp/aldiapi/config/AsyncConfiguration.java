@@ -24,8 +24,11 @@ public class AsyncConfiguration implements AsyncConfigurer {
 
     private final TaskExecutionProperties taskExecutionProperties;
 
-    public AsyncConfiguration(TaskExecutionProperties taskExecutionProperties) {
+    private final ApplicationProperties applicationProperties;
+
+    public AsyncConfiguration(TaskExecutionProperties taskExecutionProperties, ApplicationProperties applicationProperties) {
         this.taskExecutionProperties = taskExecutionProperties;
+        this.applicationProperties = applicationProperties;
     }
 
     @Override
@@ -40,6 +43,53 @@ public class AsyncConfiguration implements AsyncConfigurer {
         return new ExceptionHandlingAsyncTaskExecutor(executor);
     }
 
+    /**
+     * Executor used to fetch the offers pages, its pool size bounds the number of concurrent requests.
+     *
+     * @return the crawl executor.
+     */
+    @Bean(name = "crawlExecutor")
+    public Executor getCrawlExecutor() {
+        log.debug("Creating Crawl Task Executor");
+        int parallelism = applicationProperties.getCrawler().getParallelism();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(parallelism);
+        executor.setMaxPoolSize(parallelism);
+        executor.setThreadNamePrefix("aldi-api-crawl-");
+        return executor;
+    }
+
+    /**
+     * Executor running the thread which writes the queued changes of the search indices.
+     *
+     * @return the search index executor.
+     */
+    @Bean(name = "searchIndexExecutor")
+    public Executor getSearchIndexExecutor() {
+        log.debug("Creating Search Index Task Executor");
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setThreadNamePrefix("aldi-api-search-index-");
+        return executor;
+    }
+
+    /**
+     * Executor used to load the id ranges of a full reindex, its pool size bounds the number of concurrent ranges.
+     *
+     * @return the reindex executor.
+     */
+    @Bean(name = "reindexExecutor")
+    public Executor getReindexExecutor() {
+        log.debug("Creating Reindex Task Executor");
+        int parallelism = applicationProperties.getSearchIndex().getReindexParallelism();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(parallelism);
+        executor.setMaxPoolSize(parallelism);
+        executor.setThreadNamePrefix("aldi-api-reindex-");
+        return executor;
+    }
+
     @Override
     public AsyncUncaughtExceptionHandler getAsyncUncaughtExceptionHandler() {
         return new SimpleAsyncUncaughtExceptionHandler();
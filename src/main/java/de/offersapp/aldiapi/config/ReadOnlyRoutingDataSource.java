@@ -0,0 +1,79 @@
+package de.offersapp.aldiapi.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * DataSource handing out connections of the replica to read-only transactions, and of the primary otherwise.
+ * <p>
+ * When the replica cannot provide a connection, read-only transactions use the primary and the replica is only
+ * tried again after {@link #REPLICA_RETRY_INTERVAL} milliseconds. The transaction must be known to be read-only
+ * when the connection is requested, so this DataSource is meant to be wrapped in a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}.
+ */
+public class ReadOnlyRoutingDataSource extends AbstractDataSource {
+
+    static final long REPLICA_RETRY_INTERVAL = TimeUnit.SECONDS.toMillis(30);
+
+    private final Logger log = LoggerFactory.getLogger(ReadOnlyRoutingDataSource.class);
+
+    private final DataSource primary;
+
+    private final DataSource replica;
+
+    private final LongSupplier clock;
+
+    private volatile long replicaRetryAt;
+
+    public ReadOnlyRoutingDataSource(DataSource primary, DataSource replica) {
+        this(primary, replica, System::currentTimeMillis);
+    }
+
+    ReadOnlyRoutingDataSource(DataSource primary, DataSource replica, LongSupplier clock) {
+        this.primary = primary;
+        this.replica = replica;
+        this.clock = clock;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (useReplica()) {
+            try {
+                return replica.getConnection();
+            } catch (SQLException e) {
+                replicaUnavailable(e);
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        if (useReplica()) {
+            try {
+                return replica.getConnection(username, password);
+            } catch (SQLException e) {
+                replicaUnavailable(e);
+            }
+        }
+        return primary.getConnection(username, password);
+    }
+
+    private boolean useReplica() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() && clock.getAsLong() >= replicaRetryAt;
+    }
+
+    private void replicaUnavailable(SQLException e) {
+        replicaRetryAt = clock.getAsLong() + REPLICA_RETRY_INTERVAL;
+        log.warn("Replica unavailable, read-only transactions use the primary for the next {} ms: {}",
+            REPLICA_RETRY_INTERVAL, e.toString());
+    }
+}
@@ -0,0 +1,61 @@
+package de.offersapp.aldiapi.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.github.jhipster.config.JHipsterConstants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Send read-only transactions to a replica database, configured under {@code spring.datasource.replica} with its
+ * own {@code hikari} pool settings. Without a replica URL, the single datasource of Spring Boot is used.
+ */
+@Configuration
+@Profile("!" + JHipsterConstants.SPRING_PROFILE_CLOUD)
+@ConditionalOnProperty(prefix = "spring.datasource.replica", name = "url")
+public class ReplicaDataSourceConfiguration {
+
+    private final Logger log = LoggerFactory.getLogger(ReplicaDataSourceConfiguration.class);
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean(autowireCandidate = false)
+    @ConfigurationProperties("spring.datasource.replica")
+    public DataSourceProperties replicaDataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource() {
+        return replicaDataSourceProperties().initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    /**
+     * The connection is only requested when the first statement is executed, once the transaction is known to be
+     * read-only or not.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceProperties dataSourceProperties) {
+        log.info("Configuring the replica datasource for read-only transactions");
+        HikariDataSource primary = primaryDataSource(dataSourceProperties);
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(
+            new ReadOnlyRoutingDataSource(primary, replicaDataSource()));
+        dataSource.setDefaultAutoCommit(primary.isAutoCommit());
+        return dataSource;
+    }
+}
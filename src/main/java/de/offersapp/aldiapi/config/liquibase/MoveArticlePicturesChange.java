@@ -0,0 +1,141 @@
+package de.offersapp.aldiapi.config.liquibase;
+
+import liquibase.change.custom.CustomTaskChange;
+import liquibase.database.Database;
+import liquibase.database.core.MySQLDatabase;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.CustomChangeException;
+import liquibase.exception.ValidationErrors;
+import liquibase.resource.ResourceAccessor;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Moves the pictures stored in the {@code article} rows to the {@code picture} table, storing each distinct
+ * picture once and linking the articles to it by checksum.
+ * <p>
+ * The ids of the new pictures are taken from {@code sequence_generator} the way the pooled optimizer of Hibernate
+ * does: each value read from the sequence reserves the 50 ids up to it.
+ */
+public class MoveArticlePicturesChange implements CustomTaskChange {
+
+    private static final int ALLOCATION_SIZE = 50;
+
+    private int movedPictures;
+
+    private long nextId;
+
+    private long lastId;
+
+    @Override
+    public void execute(Database database) throws CustomChangeException {
+        Connection connection = ((JdbcConnection) database.getConnection()).getUnderlyingConnection();
+        boolean mysql = database instanceof MySQLDatabase;
+        Set<String> storedChecksums = new HashSet<>();
+        try (Statement select = connection.createStatement();
+             ResultSet articles = select.executeQuery(
+                 "SELECT id, picture, picture_content_type FROM article WHERE picture IS NOT NULL AND picture_checksum IS NULL");
+             PreparedStatement existing = connection.prepareStatement("SELECT COUNT(*) FROM picture WHERE checksum = ?");
+             PreparedStatement insert = connection.prepareStatement(
+                 "INSERT INTO picture (id, checksum, content_type, data_size, data) VALUES (?, ?, ?, ?, ?)");
+             PreparedStatement link = connection.prepareStatement("UPDATE article SET picture_checksum = ? WHERE id = ?")) {
+            while (articles.next()) {
+                byte[] data = articles.getBytes("picture");
+                String checksum = checksum(data);
+                if (storedChecksums.add(checksum) && !exists(existing, checksum)) {
+                    String contentType = articles.getString("picture_content_type");
+                    insert.setLong(1, nextId(connection, mysql));
+                    insert.setString(2, checksum);
+                    insert.setString(3, contentType == null ? "application/octet-stream" : contentType);
+                    insert.setLong(4, data.length);
+                    insert.setBytes(5, data);
+                    insert.executeUpdate();
+                    movedPictures++;
+                }
+                link.setString(1, checksum);
+                link.setLong(2, articles.getLong("id"));
+                link.executeUpdate();
+            }
+        } catch (SQLException e) {
+            throw new CustomChangeException("Could not move the article pictures", e);
+        }
+    }
+
+    private static boolean exists(PreparedStatement existing, String checksum) throws SQLException {
+        existing.setString(1, checksum);
+        try (ResultSet count = existing.executeQuery()) {
+            return count.next() && count.getLong(1) > 0;
+        }
+    }
+
+    private long nextId(Connection connection, boolean mysql) throws SQLException {
+        if (nextId > lastId) {
+            lastId = mysql ? nextTableValue(connection) : nextSequenceValue(connection);
+            nextId = lastId - ALLOCATION_SIZE + 1;
+        }
+        return nextId++;
+    }
+
+    private static long nextSequenceValue(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet value = statement.executeQuery("SELECT NEXT VALUE FOR sequence_generator")) {
+            value.next();
+            return value.getLong(1);
+        }
+    }
+
+    /**
+     * MySQL has no sequences, Hibernate reads the value of the single-row table and then increments it.
+     */
+    private static long nextTableValue(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            long value;
+            try (ResultSet result = statement.executeQuery("SELECT next_val FROM sequence_generator FOR UPDATE")) {
+                result.next();
+                value = result.getLong(1);
+            }
+            statement.executeUpdate("UPDATE sequence_generator SET next_val = " + (value + ALLOCATION_SIZE));
+            return value;
+        }
+    }
+
+    private static String checksum(byte[] data) throws CustomChangeException {
+        try {
+            StringBuilder checksum = new StringBuilder(64);
+            for (byte b : MessageDigest.getInstance("SHA-256").digest(data)) {
+                checksum.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+            }
+            return checksum.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new CustomChangeException("SHA-256 is not supported", e);
+        }
+    }
+
+    @Override
+    public String getConfirmationMessage() {
+        return movedPictures + " article pictures moved to the picture table";
+    }
+
+    @Override
+    public void setUp() {
+        // No parameters
+    }
+
+    @Override
+    public void setFileOpener(ResourceAccessor resourceAccessor) {
+        // No resources
+    }
+
+    @Override
+    public ValidationErrors validate(Database database) {
+        return new ValidationErrors();
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Liquibase custom changes, for data migrations that cannot be written in SQL for all the databases.
+ */
+package de.offersapp.aldiapi.config.liquibase;
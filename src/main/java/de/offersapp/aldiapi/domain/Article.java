@@ -1,5 +1,6 @@
 package de.offersapp.aldiapi.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import org.hibernate.annotations.Cache;
 import org.hibernate.annotations.CacheConcurrencyStrategy;
 
@@ -19,12 +20,15 @@ import de.offersapp.aldiapi.domain.enumeration.ArticleCategory;
 @Table(name = "article")
 @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @org.springframework.data.elasticsearch.annotations.Document(indexName = "article")
+@org.springframework.data.elasticsearch.annotations.Setting(settingPath = "config/elasticsearch/article-settings.json")
+@org.springframework.data.elasticsearch.annotations.Mapping(mappingPath = "config/elasticsearch/article-mapping.json")
 public class Article implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
+    @SequenceGenerator(name = "sequenceGenerator")
     private Long id;
 
     @NotNull
@@ -46,12 +50,19 @@ public class Article implements Serializable {
     @Column(name = "price", precision = 21, scale = 2)
     private BigDecimal price;
 
-    @Lob
-    @Column(name = "picture")
-    private byte[] picture;
+    /**
+     * Checksum of the {@link Picture}, whose data is only loaded when the picture itself is requested.
+     */
+    @Size(min = 64, max = 64)
+    @Column(name = "picture_checksum", length = 64)
+    private String pictureChecksum;
 
-    @Column(name = "picture_content_type")
-    private String pictureContentType;
+    /**
+     * URL of the picture on the offers page, only known while the article is crawled.
+     */
+    @Transient
+    @JsonIgnore
+    private String pictureUrl;
 
     // jhipster-needle-entity-add-field - JHipster will add fields here
     public Long getId() {
@@ -127,30 +138,30 @@ public class Article implements Serializable {
         this.price = price;
     }
 
-    public byte[] getPicture() {
-        return picture;
+    public String getPictureChecksum() {
+        return pictureChecksum;
     }
 
-    public Article picture(byte[] picture) {
-        this.picture = picture;
+    public Article pictureChecksum(String pictureChecksum) {
+        this.pictureChecksum = pictureChecksum;
         return this;
     }
 
-    public void setPicture(byte[] picture) {
-        this.picture = picture;
+    public void setPictureChecksum(String pictureChecksum) {
+        this.pictureChecksum = pictureChecksum;
     }
 
-    public String getPictureContentType() {
-        return pictureContentType;
+    public String getPictureUrl() {
+        return pictureUrl;
     }
 
-    public Article pictureContentType(String pictureContentType) {
-        this.pictureContentType = pictureContentType;
+    public Article pictureUrl(String pictureUrl) {
+        this.pictureUrl = pictureUrl;
         return this;
     }
 
-    public void setPictureContentType(String pictureContentType) {
-        this.pictureContentType = pictureContentType;
+    public void setPictureUrl(String pictureUrl) {
+        this.pictureUrl = pictureUrl;
     }
     // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
 
@@ -180,8 +191,7 @@ public class Article implements Serializable {
             ", amount='" + getAmount() + "'" +
             ", category='" + getCategory() + "'" +
             ", price=" + getPrice() +
-            ", picture='" + getPicture() + "'" +
-            ", pictureContentType='" + getPictureContentType() + "'" +
+            ", pictureChecksum='" + getPictureChecksum() + "'" +
             "}";
     }
 }
@@ -0,0 +1,100 @@
+package de.offersapp.aldiapi.domain;
+
+import org.hibernate.annotations.Immutable;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * An expired {@link Offer}, moved out of the offer table by the archiver. It keeps the id of the offer, and only
+ * the id of its article, which may have been deleted since.
+ */
+@Entity
+@Table(name = "offer_archive")
+@Immutable
+public class OfferArchive implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    private Long id;
+
+    @Column(name = "advantage", precision = 21, scale = 2, nullable = false)
+    private BigDecimal advantage;
+
+    @Column(name = "amount", nullable = false)
+    private String amount;
+
+    @Column(name = "start_date")
+    private LocalDate startDate;
+
+    @Column(name = "end_date")
+    private LocalDate endDate;
+
+    @Column(name = "article_id")
+    private Long articleId;
+
+    @Column(name = "archived_at", nullable = false)
+    private Instant archivedAt;
+
+    public Long getId() {
+        return id;
+    }
+
+    public BigDecimal getAdvantage() {
+        return advantage;
+    }
+
+    public String getAmount() {
+        return amount;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public Long getArticleId() {
+        return articleId;
+    }
+
+    public Instant getArchivedAt() {
+        return archivedAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof OfferArchive)) {
+            return false;
+        }
+        return id != null && id.equals(((OfferArchive) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "OfferArchive{" +
+            "id=" + getId() +
+            ", advantage=" + getAdvantage() +
+            ", amount='" + getAmount() + "'" +
+            ", startDate='" + getStartDate() + "'" +
+            ", endDate='" + getEndDate() + "'" +
+            ", articleId=" + getArticleId() +
+            ", archivedAt='" + getArchivedAt() + "'" +
+            "}";
+    }
+}
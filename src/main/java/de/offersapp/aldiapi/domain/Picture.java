@@ -0,0 +1,129 @@
+package de.offersapp.aldiapi.domain;
+
+import javax.persistence.*;
+import javax.validation.constraints.*;
+
+import java.io.Serializable;
+
+/**
+ * A Picture of an {@link Article}, stored once per distinct content.
+ * <p>
+ * Pictures are identified by the SHA-256 checksum of their content, which articles reference. They are neither
+ * cached nor indexed, as their data is only read when a picture is served.
+ */
+@Entity
+@Table(name = "picture")
+public class Picture implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
+    @SequenceGenerator(name = "sequenceGenerator")
+    private Long id;
+
+    @NotNull
+    @Size(min = 64, max = 64)
+    @Column(name = "checksum", length = 64, nullable = false, unique = true)
+    private String checksum;
+
+    @NotNull
+    @Column(name = "content_type", nullable = false)
+    private String contentType;
+
+    @NotNull
+    @Column(name = "data_size", nullable = false)
+    private Long size;
+
+    @NotNull
+    @Lob
+    @Column(name = "data", nullable = false)
+    private byte[] data;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getChecksum() {
+        return checksum;
+    }
+
+    public Picture checksum(String checksum) {
+        this.checksum = checksum;
+        return this;
+    }
+
+    public void setChecksum(String checksum) {
+        this.checksum = checksum;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public Picture contentType(String contentType) {
+        this.contentType = contentType;
+        return this;
+    }
+
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public Long getSize() {
+        return size;
+    }
+
+    public Picture size(Long size) {
+        this.size = size;
+        return this;
+    }
+
+    public void setSize(Long size) {
+        this.size = size;
+    }
+
+    public byte[] getData() {
+        return data;
+    }
+
+    public Picture data(byte[] data) {
+        this.data = data;
+        return this;
+    }
+
+    public void setData(byte[] data) {
+        this.data = data;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Picture)) {
+            return false;
+        }
+        return id != null && id.equals(((Picture) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "Picture{" +
+            "id=" + getId() +
+            ", checksum='" + getChecksum() + "'" +
+            ", contentType='" + getContentType() + "'" +
+            ", size=" + getSize() +
+            "}";
+    }
+}
@@ -0,0 +1,100 @@
+package de.offersapp.aldiapi.domain;
+
+import javax.persistence.*;
+import javax.validation.constraints.*;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * A change of a document of the search indices, written in the same transaction as the change of its entity and
+ * relayed to Elasticsearch after the commit.
+ * <p>
+ * It only records which document changed: the relay indexes the state of the entity at the time it runs, or
+ * deletes the document when the entity no longer exists, so that replaying a change is harmless. A change which
+ * cannot be written on its own counts its attempts, and is left aside once they are exhausted.
+ */
+@Entity
+@Table(name = "search_index_outbox")
+public class SearchIndexOutbox implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
+    @SequenceGenerator(name = "sequenceGenerator")
+    private Long id;
+
+    @NotNull
+    @Column(name = "document_type", nullable = false)
+    private String documentType;
+
+    @NotNull
+    @Column(name = "document_id", nullable = false)
+    private Long documentId;
+
+    @NotNull
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @NotNull
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts = 0;
+
+    public SearchIndexOutbox() {
+    }
+
+    public SearchIndexOutbox(String documentType, Long documentId, Instant createdAt) {
+        this.documentType = documentType;
+        this.documentId = documentId;
+        this.createdAt = createdAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getDocumentType() {
+        return documentType;
+    }
+
+    public Long getDocumentId() {
+        return documentId;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Integer getAttempts() {
+        return attempts;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof SearchIndexOutbox)) {
+            return false;
+        }
+        return id != null && id.equals(((SearchIndexOutbox) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "SearchIndexOutbox{" +
+            "id=" + getId() +
+            ", documentType='" + getDocumentType() + "'" +
+            ", documentId=" + getDocumentId() +
+            ", createdAt='" + getCreatedAt() + "'" +
+            ", attempts=" + getAttempts() +
+            "}";
+    }
+}
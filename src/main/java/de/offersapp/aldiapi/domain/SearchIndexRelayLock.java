@@ -0,0 +1,52 @@
+package de.offersapp.aldiapi.domain;
+
+import javax.persistence.*;
+
+import java.io.Serializable;
+
+/**
+ * The lock held by the instance relaying the {@link SearchIndexOutbox}, a single row locked for the duration of each
+ * batch, so that the batches of two instances never interleave.
+ */
+@Entity
+@Table(name = "search_index_relay_lock")
+public class SearchIndexRelayLock implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Id of the only row of the table.
+     */
+    public static final Long ID = 1L;
+
+    @Id
+    private Long id;
+
+    public Long getId() {
+        return id;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof SearchIndexRelayLock)) {
+            return false;
+        }
+        return id != null && id.equals(((SearchIndexRelayLock) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "SearchIndexRelayLock{" +
+            "id=" + getId() +
+            "}";
+    }
+}
@@ -3,12 +3,30 @@ package de.offersapp.aldiapi.repository;
 import de.offersapp.aldiapi.domain.Article;
 
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.LockModeType;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 /**
  * Spring Data  repository for the Article entity.
  */
 @SuppressWarnings("unused")
 @Repository
 public interface ArticleRepository extends JpaRepository<Article, Long>, JpaSpecificationExecutor<Article> {
+
+    Optional<Article> findFirstByDescriptionAndProducer(String description, String producer);
+
+    /**
+     * Lock the rows until the end of the current transaction, so that they cannot be deleted before it ends.
+     *
+     * @param ids the ids of the rows.
+     * @return the locked entities.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select article from Article article where article.id in :ids")
+    List<Article> lockAllByIdIn(@Param("ids") Collection<Long> ids);
 }
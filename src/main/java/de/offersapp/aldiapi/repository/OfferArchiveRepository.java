@@ -0,0 +1,30 @@
+package de.offersapp.aldiapi.repository;
+
+import de.offersapp.aldiapi.domain.OfferArchive;
+
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+
+/**
+ * Spring Data  repository for the OfferArchive entity.
+ */
+@Repository
+public interface OfferArchiveRepository extends JpaRepository<OfferArchive, Long>, JpaSpecificationExecutor<OfferArchive> {
+
+    /**
+     * Copy offers to the archive, in the database.
+     *
+     * @param ids the ids of the offers.
+     * @param archivedAt the archiving time.
+     * @return the number of archived offers.
+     */
+    @Modifying
+    @Query(value = "insert into offer_archive (id, advantage, amount, start_date, end_date, article_id, archived_at) " +
+        "select id, advantage, amount, start_date, end_date, article_id, :archivedAt from offer where id in :ids",
+        nativeQuery = true)
+    int archiveOffers(@Param("ids") Collection<Long> ids, @Param("archivedAt") Instant archivedAt);
+}
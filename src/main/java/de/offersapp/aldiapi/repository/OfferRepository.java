@@ -2,13 +2,66 @@ package de.offersapp.aldiapi.repository;
 
 import de.offersapp.aldiapi.domain.Offer;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.LockModeType;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 /**
  * Spring Data  repository for the Offer entity.
+ * <p>
+ * Offers are always read along with their article, which is fetched in the same query rather than with
+ * one select per article. Count queries do not fetch the article.
  */
 @SuppressWarnings("unused")
 @Repository
 public interface OfferRepository extends JpaRepository<Offer, Long>, JpaSpecificationExecutor<Offer> {
+
+    @Override
+    @EntityGraph(attributePaths = "article")
+    Optional<Offer> findById(Long id);
+
+    @Override
+    @EntityGraph(attributePaths = "article")
+    List<Offer> findAll();
+
+    @Override
+    @EntityGraph(attributePaths = "article")
+    Page<Offer> findAll(Pageable pageable);
+
+    @Override
+    @EntityGraph(attributePaths = "article")
+    List<Offer> findAll(Specification<Offer> specification);
+
+    @Override
+    @EntityGraph(attributePaths = "article")
+    Page<Offer> findAll(Specification<Offer> specification, Pageable pageable);
+
+    @EntityGraph(attributePaths = "article")
+    List<Offer> findAllByEndDateGreaterThanEqualOrEndDateIsNull(LocalDate date);
+
+    /**
+     * Lock the rows until the end of the current transaction, so that they cannot be deleted before it ends.
+     *
+     * @param ids the ids of the rows.
+     * @return the locked entities.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select offer from Offer offer where offer.id in :ids")
+    List<Offer> lockAllByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select offer.id from Offer offer where offer.endDate < :date order by offer.id")
+    List<Long> findIdsByEndDateBefore(@Param("date") LocalDate date, Pageable pageable);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Offer offer where offer.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,17 @@
+package de.offersapp.aldiapi.repository;
+
+import de.offersapp.aldiapi.domain.Picture;
+
+import org.springframework.data.jpa.repository.*;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * Spring Data  repository for the Picture entity.
+ */
+@Repository
+public interface PictureRepository extends JpaRepository<Picture, Long> {
+
+    Optional<Picture> findOneByChecksum(String checksum);
+}
@@ -0,0 +1,36 @@
+package de.offersapp.aldiapi.repository;
+
+import de.offersapp.aldiapi.domain.SearchIndexOutbox;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Spring Data  repository for the SearchIndexOutbox entity.
+ */
+@Repository
+public interface SearchIndexOutboxRepository extends JpaRepository<SearchIndexOutbox, Long> {
+
+    /**
+     * Get the oldest changes whose attempts are not exhausted.
+     *
+     * @param maxAttempts the number of attempts after which a change is left aside.
+     * @param pageable the number of changes.
+     * @return the changes, oldest first.
+     */
+    @Query("select outbox from SearchIndexOutbox outbox where outbox.attempts < :maxAttempts order by outbox.id")
+    List<SearchIndexOutbox> findOldest(@Param("maxAttempts") int maxAttempts, Pageable pageable);
+
+    @Modifying
+    @Query("update SearchIndexOutbox outbox set outbox.attempts = outbox.attempts + 1 where outbox.id in :ids")
+    int incrementAttemptsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("delete from SearchIndexOutbox outbox where outbox.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+}
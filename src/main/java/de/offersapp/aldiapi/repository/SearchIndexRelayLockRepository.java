@@ -0,0 +1,41 @@
+package de.offersapp.aldiapi.repository;
+
+import de.offersapp.aldiapi.domain.SearchIndexRelayLock;
+
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.util.Optional;
+
+/**
+ * Spring Data  repository for the SearchIndexRelayLock entity.
+ */
+@Repository
+public interface SearchIndexRelayLockRepository extends JpaRepository<SearchIndexRelayLock, Long> {
+
+    /**
+     * Lock the row until the end of the current transaction, unless another transaction holds it.
+     * <p>
+     * The lock timeout of {@code -2} is Hibernate's {@code SKIP LOCKED}; dialects without it wait for the lock.
+     *
+     * @param id the id of the row.
+     * @return the locked row, or empty if another transaction holds it.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "javax.persistence.lock.timeout", value = "-2"))
+    @Query("select relayLock from SearchIndexRelayLock relayLock where relayLock.id = :id")
+    Optional<SearchIndexRelayLock> tryLock(@Param("id") Long id);
+
+    /**
+     * Lock the row until the end of the current transaction, waiting for the transaction holding it.
+     *
+     * @param id the id of the row.
+     * @return the locked row.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select relayLock from SearchIndexRelayLock relayLock where relayLock.id = :id")
+    Optional<SearchIndexRelayLock> lock(@Param("id") Long id);
+}
@@ -7,5 +7,5 @@ import org.springframework.data.elasticsearch.repository.ElasticsearchRepository
 /**
  * Spring Data Elasticsearch repository for the {@link Article} entity.
  */
-public interface ArticleSearchRepository extends ElasticsearchRepository<Article, Long> {
+public interface ArticleSearchRepository extends ElasticsearchRepository<Article, Long>, BulkDeleteSearchRepository {
 }
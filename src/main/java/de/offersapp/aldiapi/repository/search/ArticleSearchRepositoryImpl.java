@@ -0,0 +1,15 @@
+package de.offersapp.aldiapi.repository.search;
+
+import de.offersapp.aldiapi.domain.Article;
+import io.searchbox.client.JestClient;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+
+/**
+ * Custom implementation of {@link ArticleSearchRepository}.
+ */
+public class ArticleSearchRepositoryImpl extends JestBulkDeleteSearchRepository {
+
+    public ArticleSearchRepositoryImpl(JestClient jestClient, ElasticsearchOperations elasticsearchOperations) {
+        super(jestClient, elasticsearchOperations, Article.class);
+    }
+}
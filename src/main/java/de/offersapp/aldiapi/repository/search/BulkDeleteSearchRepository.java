@@ -0,0 +1,16 @@
+package de.offersapp.aldiapi.repository.search;
+
+import java.util.Collection;
+
+/**
+ * Custom operations of the Spring Data Elasticsearch repositories, which the generated repositories lack.
+ */
+public interface BulkDeleteSearchRepository {
+
+    /**
+     * Delete documents in a single bulk request. The documents which do not exist are ignored.
+     *
+     * @param ids the ids of the documents.
+     */
+    void deleteAllById(Collection<Long> ids);
+}
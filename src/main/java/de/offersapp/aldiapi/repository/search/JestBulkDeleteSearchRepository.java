@@ -0,0 +1,55 @@
+package de.offersapp.aldiapi.repository.search;
+
+import io.searchbox.client.JestClient;
+import io.searchbox.core.Bulk;
+import io.searchbox.core.BulkResult;
+import io.searchbox.core.Delete;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.mapping.ElasticsearchPersistentEntity;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.stream.Collectors;
+
+/**
+ * Implementation of {@link BulkDeleteSearchRepository} with the Jest client, shared by the repositories of the
+ * indexed entities.
+ */
+abstract class JestBulkDeleteSearchRepository implements BulkDeleteSearchRepository {
+
+    private final JestClient jestClient;
+
+    private final ElasticsearchOperations elasticsearchOperations;
+
+    private final Class<?> type;
+
+    JestBulkDeleteSearchRepository(JestClient jestClient, ElasticsearchOperations elasticsearchOperations, Class<?> type) {
+        this.jestClient = jestClient;
+        this.elasticsearchOperations = elasticsearchOperations;
+        this.type = type;
+    }
+
+    @Override
+    public void deleteAllById(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        ElasticsearchPersistentEntity<?> persistentEntity = elasticsearchOperations.getPersistentEntityFor(type);
+        Bulk bulk = new Bulk.Builder()
+            .defaultIndex(persistentEntity.getIndexName())
+            .defaultType(persistentEntity.getIndexType())
+            .addAction(ids.stream()
+                .map(id -> new Delete.Builder(String.valueOf(id)).build())
+                .collect(Collectors.toList()))
+            .build();
+        try {
+            BulkResult result = jestClient.execute(bulk);
+            if (!result.isSucceeded()) {
+                throw new IllegalStateException("Elasticsearch bulk delete failed: " + result.getErrorMessage());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -7,5 +7,5 @@ import org.springframework.data.elasticsearch.repository.ElasticsearchRepository
 /**
  * Spring Data Elasticsearch repository for the {@link Offer} entity.
  */
-public interface OfferSearchRepository extends ElasticsearchRepository<Offer, Long> {
+public interface OfferSearchRepository extends ElasticsearchRepository<Offer, Long>, BulkDeleteSearchRepository {
 }
@@ -0,0 +1,15 @@
+package de.offersapp.aldiapi.repository.search;
+
+import de.offersapp.aldiapi.domain.Offer;
+import io.searchbox.client.JestClient;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+
+/**
+ * Custom implementation of {@link OfferSearchRepository}.
+ */
+public class OfferSearchRepositoryImpl extends JestBulkDeleteSearchRepository {
+
+    public OfferSearchRepositoryImpl(JestClient jestClient, ElasticsearchOperations elasticsearchOperations) {
+        super(jestClient, elasticsearchOperations, Offer.class);
+    }
+}
@@ -1,8 +1,11 @@
 package de.offersapp.aldiapi.service;
 
 import java.util.List;
+import java.util.function.Consumer;
 
+import javax.persistence.EntityManager;
 import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Selection;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -12,23 +15,24 @@ import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import io.github.jhipster.service.QueryService;
-
 import de.offersapp.aldiapi.domain.Article;
 import de.offersapp.aldiapi.domain.*; // for static metamodels
 import de.offersapp.aldiapi.repository.ArticleRepository;
 import de.offersapp.aldiapi.repository.search.ArticleSearchRepository;
 import de.offersapp.aldiapi.service.dto.ArticleCriteria;
+import de.offersapp.aldiapi.service.dto.Cursor;
+import de.offersapp.aldiapi.service.dto.KeysetPage;
+import de.offersapp.aldiapi.service.dto.ArticleSummaryDTO;
 
 /**
  * Service for executing complex queries for {@link Article} entities in the database.
  * The main input is a {@link ArticleCriteria} which gets converted to {@link Specification},
  * in a way that all the filters must apply.
- * It returns a {@link List} of {@link Article} or a {@link Page} of {@link Article} which fulfills the criteria.
+ * It returns a {@link List} of {@link Article}, a {@link Page} or a {@link KeysetPage} of {@link Article} which fulfills the criteria.
  */
 @Service
 @Transactional(readOnly = true)
-public class ArticleQueryService extends QueryService<Article> {
+public class ArticleQueryService extends KeysetQueryService<Article> {
 
     private final Logger log = LoggerFactory.getLogger(ArticleQueryService.class);
 
@@ -36,7 +40,9 @@ public class ArticleQueryService extends QueryService<Article> {
 
     private final ArticleSearchRepository articleSearchRepository;
 
-    public ArticleQueryService(ArticleRepository articleRepository, ArticleSearchRepository articleSearchRepository) {
+    public ArticleQueryService(ArticleRepository articleRepository, ArticleSearchRepository articleSearchRepository,
+                               EntityManager entityManager) {
+        super(entityManager, Article.class, "id", "description");
         this.articleRepository = articleRepository;
         this.articleSearchRepository = articleSearchRepository;
     }
@@ -66,6 +72,47 @@ public class ArticleQueryService extends QueryService<Article> {
         return articleRepository.findAll(specification, page);
     }
 
+    /**
+     * Return a {@link List} of {@link ArticleSummaryDTO} which matches the criteria from the database, selecting only
+     * the columns of the summaries.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @return the summaries of the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public List<ArticleSummaryDTO> findSummariesByCriteria(ArticleCriteria criteria) {
+        log.debug("find summaries by criteria : {}", criteria);
+        final Specification<Article> specification = createSpecification(criteria);
+        return findProjections(specification, ArticleSummaryDTO.class, root -> new Selection<?>[]{root.get(Article_.id),
+            root.get(Article_.description), root.get(Article_.producer), root.get(Article_.category),
+            root.get(Article_.price), root.get(Article_.pictureChecksum)});
+    }
+
+    /**
+     * Return a {@link KeysetPage} of {@link Article} which matches the criteria from the database.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param cursor The position of the page, sorted by one of the {@link #getSortProperties()}.
+     * @param size The maximum number of entities of the page.
+     * @return the matching entities, and the cursor of the next page.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<Article> findByCriteria(ArticleCriteria criteria, Cursor cursor, int size) {
+        log.debug("find by criteria : {}, cursor: {}, size: {}", criteria, cursor, size);
+        final Specification<Article> specification = createSpecification(criteria);
+        return findPage(specification, cursor, size);
+    }
+
+    /**
+     * Hand each {@link Article} which matches the criteria from the database to the consumer, without holding them in memory.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param consumer The consumer of the matching entities, which are detached afterwards.
+     */
+    @Transactional(readOnly = true)
+    public void streamByCriteria(ArticleCriteria criteria, Consumer<Article> consumer) {
+        log.debug("stream by criteria : {}", criteria);
+        final Specification<Article> specification = createSpecification(criteria);
+        stream(specification, consumer);
+    }
+
     /**
      * Return the number of matching entities in the database.
      * @param criteria The object which holds all the filters, which the entities should match.
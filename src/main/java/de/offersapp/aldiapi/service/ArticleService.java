@@ -1,6 +1,11 @@
 package de.offersapp.aldiapi.service;
 
 import de.offersapp.aldiapi.domain.Article;
+import de.offersapp.aldiapi.service.dto.ArticleSuggestionDTO;
+import de.offersapp.aldiapi.service.dto.Cursor;
+import de.offersapp.aldiapi.service.dto.KeysetPage;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 
 import java.util.List;
 import java.util.Optional;
@@ -18,6 +23,24 @@ public interface ArticleService {
      */
     Article save(Article article);
 
+    /**
+     * Save articles in a single transaction, with batched inserts and a single search index request.
+     *
+     * @param articles the entities to save.
+     * @return the persisted entities, in the same order.
+     */
+    List<Article> saveAll(List<Article> articles);
+
+    /**
+     * Create the articles without an ID and update the others in a single transaction. The articles to update which do not
+     * exist are not saved, and the existing ones are locked until they are saved, so that a article deleted meanwhile is not
+     * created again.
+     *
+     * @param articles the entities to save.
+     * @return the persisted entities, in the same order, with {@code null} in place of the articles which do not exist.
+     */
+    List<Article> upsertAll(List<Article> articles);
+
     /**
      * Get all the articles.
      *
@@ -34,6 +57,16 @@ public interface ArticleService {
      */
     Optional<Article> findOne(Long id);
 
+    /**
+     * Replace the picture of the "id" article.
+     *
+     * @param id the id of the entity.
+     * @param data the content of the picture.
+     * @param contentType the media type of the picture.
+     * @return the updated entity, or empty if the article does not exist.
+     */
+    Optional<Article> savePicture(Long id, byte[] data, String contentType);
+
     /**
      * Delete the "id" article.
      *
@@ -42,11 +75,30 @@ public interface ArticleService {
     void delete(Long id);
 
     /**
-     * Search for the article corresponding to the query.
+     * Search for a page of the articles corresponding to the query.
      *
      * @param query the query of the search.
-     * 
-     * @return the list of entities.
+     * @param pageable the pagination information.
+     * @return the page of entities, without their heavy fields.
+     */
+    Page<Article> search(String query, Pageable pageable);
+
+    /**
+     * Search for the articles corresponding to the query following a cursor sorted by id.
+     *
+     * @param query the query of the search.
+     * @param cursor the cursor of the page.
+     * @param size the number of entities of the page.
+     * @return the page of entities, without their heavy fields.
+     */
+    KeysetPage<Article> search(String query, Cursor cursor, int size);
+
+    /**
+     * Suggest the articles whose description or producer have words starting with the words of a prefix.
+     *
+     * @param prefix the typed text.
+     * @param size the number of suggestions.
+     * @return the suggestions, the best one first.
      */
-    List<Article> search(String query);
+    List<ArticleSuggestionDTO> suggest(String prefix, int size);
 }
@@ -0,0 +1,245 @@
+package de.offersapp.aldiapi.service;
+
+import de.offersapp.aldiapi.service.dto.Cursor;
+import de.offersapp.aldiapi.service.dto.KeysetPage;
+import io.github.jhipster.service.QueryService;
+import org.hibernate.jpa.QueryHints;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Order;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Base service for executing complex queries with keyset pagination, streaming or projections.
+ * <p>
+ * Entities are sorted by one of the sort properties and then by id, and each page is selected with a predicate
+ * on the sort value and the id of the last entity of the previous page. Unlike an offset, this predicate is
+ * resolved through the index of the sort property, so a page deep in the result costs as much as the first one.
+ * {@code null} sort values are ordered first, as both H2 and MySQL do.
+ * <p>
+ * Streamed entities are read from a forward-only cursor and the persistence context is cleared as they are
+ * consumed, so that streaming any number of entities takes the same memory.
+ * <p>
+ * Projections select only the given columns into DTOs, which are neither managed nor dirty-checked.
+ *
+ * @param <ENTITY> the type of the entity which is queried.
+ */
+@Transactional(readOnly = true)
+public abstract class KeysetQueryService<ENTITY> extends QueryService<ENTITY> {
+
+    private static final String ID = "id";
+
+    /**
+     * Rows fetched at once by a stream, and entities consumed before the persistence context is cleared.
+     */
+    private static final int STREAM_FETCH_SIZE = 100;
+
+    private final EntityManager entityManager;
+
+    private final Class<ENTITY> entityClass;
+
+    private final Set<String> sortProperties;
+
+    protected KeysetQueryService(EntityManager entityManager, Class<ENTITY> entityClass, String... sortProperties) {
+        this.entityManager = entityManager;
+        this.entityClass = entityClass;
+        this.sortProperties = Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(sortProperties)));
+    }
+
+    /**
+     * @return the properties the entities can be sorted by, which should be indexed.
+     */
+    public Set<String> getSortProperties() {
+        return sortProperties;
+    }
+
+    /**
+     * Check that a cursor, which is handed over by the clients, can be used to select a page.
+     *
+     * @param cursor the cursor.
+     * @throws IllegalArgumentException if the cursor is sorted by an unsupported property or its value is invalid.
+     */
+    public void validate(Cursor cursor) {
+        if (!sortProperties.contains(cursor.getProperty())) {
+            throw new IllegalArgumentException("Unsupported sort property " + cursor.getProperty());
+        }
+        if (!cursor.isFirst() && !ID.equals(cursor.getProperty())) {
+            parse(cursor.getValue(), entityManager.getMetamodel().entity(entityClass).getAttribute(cursor.getProperty()).getJavaType());
+        }
+    }
+
+    /**
+     * Return the page of entities matching the specification which follows the cursor.
+     *
+     * @param specification the specification the entities should match.
+     * @param cursor the position of the page.
+     * @param size the maximum number of entities of the page.
+     * @return the matching entities, and the cursor of the next page if there are more.
+     * @throws IllegalArgumentException if the cursor is sorted by an unsupported property or its value is invalid.
+     */
+    protected KeysetPage<ENTITY> findPage(Specification<ENTITY> specification, Cursor cursor, int size) {
+        validate(cursor);
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ENTITY> query = builder.createQuery(entityClass);
+        Root<ENTITY> root = query.from(entityClass);
+        fetch(root);
+
+        List<Predicate> predicates = new ArrayList<>();
+        Predicate predicate = specification == null ? null : specification.toPredicate(root, query, builder);
+        if (predicate != null) {
+            predicates.add(predicate);
+        }
+        Path<Long> id = root.get(ID);
+        boolean ascending = cursor.getDirection().isAscending();
+        List<Order> orders = new ArrayList<>();
+        if (ID.equals(cursor.getProperty())) {
+            if (!cursor.isFirst()) {
+                predicates.add(ascending ? builder.greaterThan(id, cursor.getId()) : builder.lessThan(id, cursor.getId()));
+            }
+        } else {
+            Path<Comparable<Object>> key = root.get(cursor.getProperty());
+            if (!cursor.isFirst()) {
+                predicates.add(seek(builder, key, id, cursor));
+            }
+            orders.add(ascending ? builder.asc(key) : builder.desc(key));
+        }
+        orders.add(ascending ? builder.asc(id) : builder.desc(id));
+        query.select(root).where(predicates.toArray(new Predicate[0])).orderBy(orders);
+
+        List<ENTITY> result = entityManager.createQuery(query).setMaxResults(size + 1).getResultList();
+        if (result.size() <= size) {
+            return new KeysetPage<>(result, null);
+        }
+        BeanWrapper last = PropertyAccessorFactory.forBeanPropertyAccess(result.get(size - 1));
+        Cursor next = cursor.after(last.getPropertyValue(cursor.getProperty()), (Long) last.getPropertyValue(ID));
+        return new KeysetPage<>(new ArrayList<>(result.subList(0, size)), next);
+    }
+
+    /**
+     * Hand each entity matching the specification to the consumer, by ascending id.
+     *
+     * @param specification the specification the entities should match.
+     * @param consumer the consumer of the entities, which are detached afterwards.
+     */
+    protected void stream(Specification<ENTITY> specification, Consumer<ENTITY> consumer) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ENTITY> query = builder.createQuery(entityClass);
+        Root<ENTITY> root = query.from(entityClass);
+        fetch(root);
+        Predicate predicate = specification == null ? null : specification.toPredicate(root, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(root).orderBy(builder.asc(root.get(ID)));
+
+        try (Stream<ENTITY> entities = entityManager.createQuery(query)
+            .setHint(QueryHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+            .setHint(QueryHints.HINT_READONLY, true)
+            .getResultStream()) {
+            Iterator<ENTITY> iterator = entities.iterator();
+            for (int count = 1; iterator.hasNext(); count++) {
+                consumer.accept(iterator.next());
+                if (count % STREAM_FETCH_SIZE == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+    }
+
+    /**
+     * Return the entities matching the specification as DTOs built from some of their columns, by ascending id.
+     *
+     * @param specification the specification the entities should match.
+     * @param resultClass the type of the DTOs, with a constructor taking the columns in order.
+     * @param columns the columns of the DTOs, from the root of the query.
+     * @param <R> the type of the DTOs.
+     * @return the DTOs.
+     */
+    protected <R> List<R> findProjections(Specification<ENTITY> specification, Class<R> resultClass,
+                                          Function<Root<ENTITY>, Selection<?>[]> columns) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<R> query = builder.createQuery(resultClass);
+        Root<ENTITY> root = query.from(entityClass);
+        Predicate predicate = specification == null ? null : specification.toPredicate(root, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(builder.construct(resultClass, columns.apply(root))).orderBy(builder.asc(root.get(ID)));
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    /**
+     * Fetch the associations returned along with the entities.
+     *
+     * @param root the root of the query.
+     */
+    protected void fetch(Root<ENTITY> root) {
+    }
+
+    /**
+     * The entities after the cursor: those with a greater sort value, or the same sort value and a greater id,
+     * {@code null} being lower than any value.
+     */
+    private Predicate seek(CriteriaBuilder builder, Path<Comparable<Object>> key, Path<Long> id, Cursor cursor) {
+        Comparable<Object> value = parse(cursor.getValue(), key.getJavaType());
+        if (cursor.getDirection() == Sort.Direction.ASC) {
+            Predicate sameValue = value == null ? builder.isNull(key) : builder.equal(key, value);
+            Predicate greaterValue = value == null ? builder.isNotNull(key) : builder.greaterThan(key, value);
+            return builder.or(greaterValue, builder.and(sameValue, builder.greaterThan(id, cursor.getId())));
+        }
+        if (value == null) {
+            return builder.and(builder.isNull(key), builder.lessThan(id, cursor.getId()));
+        }
+        return builder.or(builder.lessThan(key, value), builder.isNull(key),
+            builder.and(builder.equal(key, value), builder.lessThan(id, cursor.getId())));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Comparable<Object> parse(String value, Class<?> type) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            if (String.class.equals(type)) {
+                return (Comparable<Object>) (Comparable<?>) value;
+            } else if (Long.class.equals(type)) {
+                return (Comparable<Object>) (Comparable<?>) Long.valueOf(value);
+            } else if (Integer.class.equals(type)) {
+                return (Comparable<Object>) (Comparable<?>) Integer.valueOf(value);
+            } else if (BigDecimal.class.equals(type)) {
+                return (Comparable<Object>) (Comparable<?>) new BigDecimal(value);
+            } else if (LocalDate.class.equals(type)) {
+                return (Comparable<Object>) (Comparable<?>) LocalDate.parse(value);
+            } else if (Instant.class.equals(type)) {
+                return (Comparable<Object>) (Comparable<?>) Instant.parse(value);
+            }
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor value " + value, e);
+        }
+        throw new IllegalArgumentException("Unsupported sort type " + type);
+    }
+}
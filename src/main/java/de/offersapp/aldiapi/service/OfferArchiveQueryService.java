@@ -0,0 +1,77 @@
+package de.offersapp.aldiapi.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import de.offersapp.aldiapi.domain.OfferArchive;
+import de.offersapp.aldiapi.domain.*; // for static metamodels
+import de.offersapp.aldiapi.repository.OfferArchiveRepository;
+import de.offersapp.aldiapi.service.dto.OfferCriteria;
+import io.github.jhipster.service.QueryService;
+
+/**
+ * Service for executing complex queries for {@link OfferArchive} entities in the database.
+ * The main input is a {@link OfferCriteria}, the same as for the current offers, which gets converted to
+ * {@link Specification}, in a way that all the filters must apply.
+ * It returns a {@link Page} of {@link OfferArchive} which fulfills the criteria.
+ */
+@Service
+@Transactional(readOnly = true)
+public class OfferArchiveQueryService extends QueryService<OfferArchive> {
+
+    private final Logger log = LoggerFactory.getLogger(OfferArchiveQueryService.class);
+
+    private final OfferArchiveRepository offerArchiveRepository;
+
+    public OfferArchiveQueryService(OfferArchiveRepository offerArchiveRepository) {
+        this.offerArchiveRepository = offerArchiveRepository;
+    }
+
+    /**
+     * Return a {@link Page} of {@link OfferArchive} which matches the criteria from the database.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param page The page, which should be returned.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public Page<OfferArchive> findByCriteria(OfferCriteria criteria, Pageable page) {
+        log.debug("find by criteria : {}, page: {}", criteria, page);
+        final Specification<OfferArchive> specification = createSpecification(criteria);
+        return offerArchiveRepository.findAll(specification, page);
+    }
+
+    /**
+     * Function to convert {@link OfferCriteria} to a {@link Specification}
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @return the matching {@link Specification} of the entity.
+     */
+    protected Specification<OfferArchive> createSpecification(OfferCriteria criteria) {
+        Specification<OfferArchive> specification = Specification.where(null);
+        if (criteria != null) {
+            if (criteria.getId() != null) {
+                specification = specification.and(buildRangeSpecification(criteria.getId(), OfferArchive_.id));
+            }
+            if (criteria.getAdvantage() != null) {
+                specification = specification.and(buildRangeSpecification(criteria.getAdvantage(), OfferArchive_.advantage));
+            }
+            if (criteria.getAmount() != null) {
+                specification = specification.and(buildStringSpecification(criteria.getAmount(), OfferArchive_.amount));
+            }
+            if (criteria.getStartDate() != null) {
+                specification = specification.and(buildRangeSpecification(criteria.getStartDate(), OfferArchive_.startDate));
+            }
+            if (criteria.getEndDate() != null) {
+                specification = specification.and(buildRangeSpecification(criteria.getEndDate(), OfferArchive_.endDate));
+            }
+            if (criteria.getArticleId() != null) {
+                specification = specification.and(buildRangeSpecification(criteria.getArticleId(), OfferArchive_.articleId));
+            }
+        }
+        return specification;
+    }
+}
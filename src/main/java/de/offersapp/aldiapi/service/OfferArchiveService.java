@@ -0,0 +1,16 @@
+package de.offersapp.aldiapi.service;
+
+/**
+ * Service Interface for moving expired offers to the {@link de.offersapp.aldiapi.domain.OfferArchive}, so that
+ * the offer table only holds the offers of the last weeks.
+ */
+public interface OfferArchiveService {
+
+    /**
+     * Move the offers which ended before the {@code application.offer-archive.retention} to the archive, and
+     * remove them from the search index. The offers are moved in batches, each in its own transaction.
+     *
+     * @return the number of archived offers.
+     */
+    int archiveExpiredOffers();
+}
@@ -0,0 +1,37 @@
+package de.offersapp.aldiapi.service;
+
+import de.offersapp.aldiapi.domain.Offer;
+import de.offersapp.aldiapi.service.dto.IngestResult;
+
+import java.util.List;
+
+/**
+ * Service Interface for storing the offers parsed by the {@link OffersParserService}.
+ */
+public interface OfferIngestService {
+
+    /**
+     * Apply a crawl to the stored offers: new offers are inserted, offers whose content changed are updated and
+     * current offers missing from the crawl are deleted. Unchanged offers are not written at all.
+     *
+     * @param offers the offers of a complete crawl.
+     * @return the summary of the applied changes.
+     */
+    IngestResult ingest(List<Offer> offers);
+
+    /**
+     * Crawl the offers and ingest them as soon as their page is extracted, in short transactions of a JDBC batch each.
+     * An interrupted crawl is resumed with its remaining pages. Current offers missing from the crawl are deleted at
+     * the end, unless the crawl was resumed, empty or incomplete, or an offer could not be ingested.
+     *
+     * @return the summary of the committed changes, with the number of offers whose batch could not be written.
+     */
+    IngestResult ingestCrawl();
+
+    /**
+     * Crawl again the pages that failed in the last crawl and ingest their offers. No offer is deleted.
+     *
+     * @return the summary of the applied changes.
+     */
+    IngestResult ingestFailedPages();
+}
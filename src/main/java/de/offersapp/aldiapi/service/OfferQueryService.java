@@ -1,8 +1,13 @@
 package de.offersapp.aldiapi.service;
 
 import java.util.List;
+import java.util.function.Consumer;
 
+import javax.persistence.EntityManager;
+import javax.persistence.criteria.Join;
 import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -12,23 +17,25 @@ import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import io.github.jhipster.service.QueryService;
-
 import de.offersapp.aldiapi.domain.Offer;
+import de.offersapp.aldiapi.domain.OfferArchive;
 import de.offersapp.aldiapi.domain.*; // for static metamodels
 import de.offersapp.aldiapi.repository.OfferRepository;
 import de.offersapp.aldiapi.repository.search.OfferSearchRepository;
 import de.offersapp.aldiapi.service.dto.OfferCriteria;
+import de.offersapp.aldiapi.service.dto.Cursor;
+import de.offersapp.aldiapi.service.dto.KeysetPage;
+import de.offersapp.aldiapi.service.dto.OfferSummaryDTO;
 
 /**
  * Service for executing complex queries for {@link Offer} entities in the database.
  * The main input is a {@link OfferCriteria} which gets converted to {@link Specification},
  * in a way that all the filters must apply.
- * It returns a {@link List} of {@link Offer} or a {@link Page} of {@link Offer} which fulfills the criteria.
+ * It returns a {@link List} of {@link Offer}, a {@link Page} or a {@link KeysetPage} of {@link Offer} which fulfills the criteria.
  */
 @Service
 @Transactional(readOnly = true)
-public class OfferQueryService extends QueryService<Offer> {
+public class OfferQueryService extends KeysetQueryService<Offer> {
 
     private final Logger log = LoggerFactory.getLogger(OfferQueryService.class);
 
@@ -36,9 +43,14 @@ public class OfferQueryService extends QueryService<Offer> {
 
     private final OfferSearchRepository offerSearchRepository;
 
-    public OfferQueryService(OfferRepository offerRepository, OfferSearchRepository offerSearchRepository) {
+    private final OfferArchiveQueryService offerArchiveQueryService;
+
+    public OfferQueryService(OfferRepository offerRepository, OfferSearchRepository offerSearchRepository,
+                             OfferArchiveQueryService offerArchiveQueryService, EntityManager entityManager) {
+        super(entityManager, Offer.class, "id", "endDate");
         this.offerRepository = offerRepository;
         this.offerSearchRepository = offerSearchRepository;
+        this.offerArchiveQueryService = offerArchiveQueryService;
     }
 
     /**
@@ -66,6 +78,65 @@ public class OfferQueryService extends QueryService<Offer> {
         return offerRepository.findAll(specification, page);
     }
 
+    /**
+     * Return a {@link List} of {@link OfferSummaryDTO} which matches the criteria from the database, selecting only
+     * the columns of the summaries.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @return the summaries of the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public List<OfferSummaryDTO> findSummariesByCriteria(OfferCriteria criteria) {
+        log.debug("find summaries by criteria : {}", criteria);
+        final Specification<Offer> specification = createSpecification(criteria);
+        return findProjections(specification, OfferSummaryDTO.class, root -> {
+            Join<Offer, Article> article = root.join(Offer_.article, JoinType.LEFT);
+            return new Selection<?>[]{root.get(Offer_.id), root.get(Offer_.advantage), root.get(Offer_.amount),
+                root.get(Offer_.startDate), root.get(Offer_.endDate), article.get(Article_.id),
+                article.get(Article_.description), article.get(Article_.producer), article.get(Article_.price),
+                article.get(Article_.pictureChecksum)};
+        });
+    }
+
+    /**
+     * Return a {@link KeysetPage} of {@link Offer} which matches the criteria from the database.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param cursor The position of the page, sorted by one of the {@link #getSortProperties()}.
+     * @param size The maximum number of entities of the page.
+     * @return the matching entities, and the cursor of the next page.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<Offer> findByCriteria(OfferCriteria criteria, Cursor cursor, int size) {
+        log.debug("find by criteria : {}, cursor: {}, size: {}", criteria, cursor, size);
+        final Specification<Offer> specification = createSpecification(criteria);
+        return findPage(specification, cursor, size);
+    }
+
+    /**
+     * Hand each {@link Offer} which matches the criteria from the database to the consumer, without holding them in memory.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param consumer The consumer of the matching entities, which are detached afterwards.
+     */
+    @Transactional(readOnly = true)
+    public void streamByCriteria(OfferCriteria criteria, Consumer<Offer> consumer) {
+        log.debug("stream by criteria : {}", criteria);
+        final Specification<Offer> specification = createSpecification(criteria);
+        stream(specification, consumer);
+    }
+
+    /**
+     * Return a {@link Page} of the archived offers which match the criteria from the database.
+     * <p>
+     * Offers are archived once they expired longer ago than the retention, so the other methods never return them.
+     * @param criteria The object which holds all the filters, which the archived entities should match.
+     * @param page The page, which should be returned.
+     * @return the matching archived entities.
+     */
+    @Transactional(readOnly = true)
+    public Page<OfferArchive> findHistoryByCriteria(OfferCriteria criteria, Pageable page) {
+        log.debug("find history by criteria : {}, page: {}", criteria, page);
+        return offerArchiveQueryService.findByCriteria(criteria, page);
+    }
+
     /**
      * Return the number of matching entities in the database.
      * @param criteria The object which holds all the filters, which the entities should match.
@@ -78,6 +149,11 @@ public class OfferQueryService extends QueryService<Offer> {
         return offerRepository.count(specification);
     }
 
+    @Override
+    protected void fetch(Root<Offer> root) {
+        root.fetch(Offer_.article, JoinType.LEFT);
+    }
+
     /**
      * Function to convert {@link OfferCriteria} to a {@link Specification}
      * @param criteria The object which holds all the filters, which the entities should match.
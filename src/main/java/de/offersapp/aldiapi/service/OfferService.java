@@ -1,6 +1,10 @@
 package de.offersapp.aldiapi.service;
 
 import de.offersapp.aldiapi.domain.Offer;
+import de.offersapp.aldiapi.service.dto.Cursor;
+import de.offersapp.aldiapi.service.dto.KeysetPage;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 
 import java.util.List;
 import java.util.Optional;
@@ -18,6 +22,24 @@ public interface OfferService {
      */
     Offer save(Offer offer);
 
+    /**
+     * Save offers in a single transaction, with batched inserts and a single search index request.
+     *
+     * @param offers the entities to save.
+     * @return the persisted entities, in the same order.
+     */
+    List<Offer> saveAll(List<Offer> offers);
+
+    /**
+     * Create the offers without an ID and update the others in a single transaction. The offers to update which do not
+     * exist are not saved, and the existing ones are locked until they are saved, so that a offer deleted meanwhile is not
+     * created again.
+     *
+     * @param offers the entities to save.
+     * @return the persisted entities, in the same order, with {@code null} in place of the offers which do not exist.
+     */
+    List<Offer> upsertAll(List<Offer> offers);
+
     /**
      * Get all the offers.
      *
@@ -42,11 +64,21 @@ public interface OfferService {
     void delete(Long id);
 
     /**
-     * Search for the offer corresponding to the query.
+     * Search for a page of the offers corresponding to the query.
      *
      * @param query the query of the search.
-     * 
-     * @return the list of entities.
+     * @param pageable the pagination information.
+     * @return the page of entities, without their heavy fields.
+     */
+    Page<Offer> search(String query, Pageable pageable);
+
+    /**
+     * Search for the offers corresponding to the query following a cursor sorted by id.
+     *
+     * @param query the query of the search.
+     * @param cursor the cursor of the page.
+     * @param size the number of entities of the page.
+     * @return the page of entities, without their heavy fields.
      */
-    List<Offer> search(String query);
+    KeysetPage<Offer> search(String query, Cursor cursor, int size);
 }
@@ -1,11 +1,33 @@
 package de.offersapp.aldiapi.service;
 
 import de.offersapp.aldiapi.domain.Offer;
+import de.offersapp.aldiapi.service.crawler.CrawlResult;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface OffersParserService {
 
     List<Offer> fetchOffers();
 
+    /**
+     * Fetch the offers, handing each of them to the consumer as soon as its page is extracted.
+     * <p>
+     * Pages are extracted concurrently, but the consumer is never called concurrently. The status of each page is
+     * checkpointed, and a crawl interrupted before all its pages were attempted is resumed with the remaining pages
+     * instead of starting over.
+     *
+     * @param offerConsumer the consumer of the extracted offers.
+     * @return the summary of the crawl.
+     */
+    CrawlResult fetchOffers(Consumer<Offer> offerConsumer);
+
+    /**
+     * Fetch the offers of the pages that failed in the last crawl, along with any page it did not attempt.
+     *
+     * @param offerConsumer the consumer of the extracted offers.
+     * @return the summary of the crawl, which is never complete.
+     */
+    CrawlResult retryFailedPages(Consumer<Offer> offerConsumer);
+
 }
@@ -0,0 +1,39 @@
+package de.offersapp.aldiapi.service;
+
+import de.offersapp.aldiapi.domain.Picture;
+import de.offersapp.aldiapi.service.dto.PictureFileDTO;
+
+import java.util.Optional;
+
+/**
+ * Service Interface for managing {@link Picture}.
+ */
+public interface PictureService {
+
+    /**
+     * Store a picture, unless a picture with the same content is already stored.
+     *
+     * @param data the content of the picture.
+     * @param contentType the media type of the picture.
+     * @return the stored picture, either new or existing.
+     */
+    Picture store(byte[] data, String contentType);
+
+    /**
+     * Get the picture with the given checksum.
+     *
+     * @param checksum the SHA-256 checksum of the picture, in hex.
+     * @return the entity.
+     */
+    Optional<Picture> findOneByChecksum(String checksum);
+
+    /**
+     * Get the file of a picture or of one of its thumbnails, writing the picture and its thumbnails to the disk cache
+     * if needed. A thumbnail that cannot be generated falls back to the picture itself.
+     *
+     * @param checksum the SHA-256 checksum of the picture, in hex.
+     * @param size the size of the thumbnail, one of {@code application.picture.thumbnail-sizes}, or {@code null} for the picture itself.
+     * @return the file, or empty if there is no such picture.
+     */
+    Optional<PictureFileDTO> findFile(String checksum, Integer size);
+}
@@ -0,0 +1,26 @@
+package de.offersapp.aldiapi.service;
+
+import de.offersapp.aldiapi.service.dto.ReindexStatusDTO;
+
+/**
+ * Service Interface for rebuilding the search indices from the database.
+ */
+public interface SearchReindexService {
+
+    /**
+     * Start a full reindex in the background, unless one is already running.
+     * <p>
+     * Each index is loaded into a new index, which replaces the old one behind the alias named after the entity
+     * once it is complete, so that searches keep being answered throughout.
+     *
+     * @return {@code true} if the reindex was started.
+     */
+    boolean startReindex();
+
+    /**
+     * Get the progress of the running or last reindex.
+     *
+     * @return a copy of the status.
+     */
+    ReindexStatusDTO getStatus();
+}
@@ -0,0 +1,62 @@
+package de.offersapp.aldiapi.service.crawler;
+
+import java.io.Serializable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A response recorded in the {@link PageArchive}.
+ */
+public class ArchivedPage implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private String url;
+
+    private int status;
+
+    private Map<String, String> headers = new LinkedHashMap<>();
+
+    private String body;
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public void setStatus(int status) {
+        this.status = status;
+    }
+
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+
+    public void setHeaders(Map<String, String> headers) {
+        this.headers = headers;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    public void setBody(String body) {
+        this.body = body;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ArchivedPage{" +
+            "url='" + url + "'" +
+            ", status=" + status +
+            "}";
+    }
+}
@@ -0,0 +1,73 @@
+package de.offersapp.aldiapi.service.crawler;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * A page body stored by the {@link PageCache}, together with the validators needed for a conditional GET.
+ */
+public class CachedPage implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private String url;
+
+    private String body;
+
+    private String etag;
+
+    private String lastModified;
+
+    private Instant fetchedAt;
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    public void setBody(String body) {
+        this.body = body;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public void setEtag(String etag) {
+        this.etag = etag;
+    }
+
+    public String getLastModified() {
+        return lastModified;
+    }
+
+    public void setLastModified(String lastModified) {
+        this.lastModified = lastModified;
+    }
+
+    public Instant getFetchedAt() {
+        return fetchedAt;
+    }
+
+    public void setFetchedAt(Instant fetchedAt) {
+        this.fetchedAt = fetchedAt;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "CachedPage{" +
+            "url='" + url + "'" +
+            ", etag='" + etag + "'" +
+            ", lastModified='" + lastModified + "'" +
+            ", fetchedAt='" + fetchedAt + "'" +
+            "}";
+    }
+}
@@ -0,0 +1,111 @@
+package de.offersapp.aldiapi.service.crawler;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * State of a crawl persisted by the {@link CrawlCheckpointStore}: the offers pages discovered on the index and the
+ * status of each of them.
+ */
+public class CrawlCheckpoint implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Instant startedAt;
+
+    private Instant updatedAt;
+
+    private Map<String, PageState> pages = new LinkedHashMap<>();
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(Instant startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    /**
+     * @return the state of each page, by relative path, in the order of discovery.
+     */
+    public Map<String, PageState> getPages() {
+        return pages;
+    }
+
+    public void setPages(Map<String, PageState> pages) {
+        this.pages = pages;
+    }
+
+    public boolean hasPages(PageStatus status) {
+        return pages.values().stream().anyMatch(page -> page.getStatus() == status);
+    }
+
+    public enum PageStatus {
+        PENDING, DONE, FAILED
+    }
+
+    public static class PageState implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private PageStatus status = PageStatus.PENDING;
+
+        private int attempts;
+
+        private String error;
+
+        private Instant updatedAt;
+
+        public PageStatus getStatus() {
+            return status;
+        }
+
+        public void setStatus(PageStatus status) {
+            this.status = status;
+        }
+
+        public int getAttempts() {
+            return attempts;
+        }
+
+        public void setAttempts(int attempts) {
+            this.attempts = attempts;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        public void setError(String error) {
+            this.error = error;
+        }
+
+        public Instant getUpdatedAt() {
+            return updatedAt;
+        }
+
+        public void setUpdatedAt(Instant updatedAt) {
+            this.updatedAt = updatedAt;
+        }
+
+        // prettier-ignore
+        @Override
+        public String toString() {
+            return "PageState{" +
+                "status=" + status +
+                ", attempts=" + attempts +
+                ", error='" + error + "'" +
+                "}";
+        }
+    }
+}
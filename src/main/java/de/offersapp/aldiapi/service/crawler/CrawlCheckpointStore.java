@@ -0,0 +1,126 @@
+package de.offersapp.aldiapi.service.crawler;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.offersapp.aldiapi.config.ApplicationProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Persists the {@link CrawlCheckpoint} of the current crawl to a local JSON file, rewritten atomically after each
+ * page, so that an interrupted crawl can resume with the remaining pages.
+ * <p>
+ * All the updates of a checkpoint must go through this store, which serializes them.
+ */
+@Component
+public class CrawlCheckpointStore {
+
+    private final Logger log = LoggerFactory.getLogger(CrawlCheckpointStore.class);
+
+    private final ObjectMapper objectMapper;
+
+    private final Path file;
+
+    private final Duration maxAge;
+
+    public CrawlCheckpointStore(ObjectMapper objectMapper, ApplicationProperties applicationProperties) {
+        this.objectMapper = objectMapper;
+        this.file = Paths.get(applicationProperties.getCrawler().getCheckpointFile());
+        this.maxAge = applicationProperties.getCrawler().getCheckpointMaxAge();
+    }
+
+    /**
+     * Get the checkpoint of the last crawl.
+     * <p>
+     * A checkpoint started longer than {@code application.crawler.checkpoint-max-age} ago is ignored: the offers
+     * pages have changed since, so its remaining pages would be mixed with outdated ones.
+     *
+     * @return the checkpoint, or empty if there is none, it is unreadable or it is too old.
+     */
+    public synchronized Optional<CrawlCheckpoint> load() {
+        if (!Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+        CrawlCheckpoint checkpoint;
+        try {
+            checkpoint = objectMapper.readValue(file.toFile(), CrawlCheckpoint.class);
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable crawl checkpoint {}: {}", file, e.getMessage());
+            return Optional.empty();
+        }
+        if (checkpoint.getStartedAt() == null || checkpoint.getStartedAt().isBefore(Instant.now().minus(maxAge))) {
+            log.info("Ignoring the checkpoint of the crawl started at {}, older than {}", checkpoint.getStartedAt(), maxAge);
+            return Optional.empty();
+        }
+        return Optional.of(checkpoint);
+    }
+
+    /**
+     * Start a new checkpoint, replacing the previous one.
+     *
+     * @param pages the relative paths of the pages to crawl.
+     * @return the new checkpoint, with all the pages pending.
+     */
+    public synchronized CrawlCheckpoint start(List<String> pages) {
+        CrawlCheckpoint checkpoint = new CrawlCheckpoint();
+        checkpoint.setStartedAt(Instant.now());
+        pages.forEach(page -> checkpoint.getPages().put(page, new CrawlCheckpoint.PageState()));
+        save(checkpoint);
+        return checkpoint;
+    }
+
+    /**
+     * Make the failed pages of a checkpoint pending again.
+     *
+     * @param checkpoint the checkpoint.
+     */
+    public synchronized void resetFailed(CrawlCheckpoint checkpoint) {
+        checkpoint.getPages().values().stream()
+            .filter(state -> state.getStatus() == CrawlCheckpoint.PageStatus.FAILED)
+            .forEach(state -> state.setStatus(CrawlCheckpoint.PageStatus.PENDING));
+        save(checkpoint);
+    }
+
+    public synchronized void markDone(CrawlCheckpoint checkpoint, String page) {
+        update(checkpoint, page, CrawlCheckpoint.PageStatus.DONE, null);
+    }
+
+    public synchronized void markFailed(CrawlCheckpoint checkpoint, String page, Throwable error) {
+        update(checkpoint, page, CrawlCheckpoint.PageStatus.FAILED, String.valueOf(error));
+    }
+
+    private void update(CrawlCheckpoint checkpoint, String page, CrawlCheckpoint.PageStatus status, String error) {
+        CrawlCheckpoint.PageState state = checkpoint.getPages().computeIfAbsent(page, key -> new CrawlCheckpoint.PageState());
+        state.setStatus(status);
+        state.setAttempts(state.getAttempts() + 1);
+        state.setError(error);
+        state.setUpdatedAt(Instant.now());
+        save(checkpoint);
+    }
+
+    /**
+     * A checkpoint that cannot be written only loses the ability to resume, so it does not fail the crawl.
+     */
+    private void save(CrawlCheckpoint checkpoint) {
+        checkpoint.setUpdatedAt(Instant.now());
+        try {
+            Path directory = file.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            Path tempFile = Files.createTempFile(directory, "checkpoint", ".tmp");
+            objectMapper.writeValue(tempFile.toFile(), checkpoint);
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Could not write the crawl checkpoint {}: {}", file, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package de.offersapp.aldiapi.service.crawler;
+
+import java.io.Serializable;
+
+/**
+ * Summary of a crawl run by the {@link de.offersapp.aldiapi.service.OffersParserService}.
+ */
+public class CrawlResult implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final boolean resumed;
+
+    private int pages;
+
+    private int failedPages;
+
+    private int offers;
+
+    private boolean indexFailed;
+
+    public CrawlResult(boolean resumed) {
+        this.resumed = resumed;
+    }
+
+    /**
+     * @return whether the run continued an interrupted crawl or retried failed pages, instead of crawling all the
+     * pages from the index.
+     */
+    public boolean isResumed() {
+        return resumed;
+    }
+
+    public int getPages() {
+        return pages;
+    }
+
+    public void setPages(int pages) {
+        this.pages = pages;
+    }
+
+    public int getFailedPages() {
+        return failedPages;
+    }
+
+    public void setFailedPages(int failedPages) {
+        this.failedPages = failedPages;
+    }
+
+    public int getOffers() {
+        return offers;
+    }
+
+    public void setOffers(int offers) {
+        this.offers = offers;
+    }
+
+    public boolean isIndexFailed() {
+        return indexFailed;
+    }
+
+    public void setIndexFailed(boolean indexFailed) {
+        this.indexFailed = indexFailed;
+    }
+
+    /**
+     * @return whether the run delivered all the current offers, which is only the case for a run crawling every
+     * page of the index without failure.
+     */
+    public boolean isComplete() {
+        return !resumed && !indexFailed && failedPages == 0;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "CrawlResult{" +
+            "resumed=" + resumed +
+            ", pages=" + pages +
+            ", failedPages=" + failedPages +
+            ", offers=" + offers +
+            ", indexFailed=" + indexFailed +
+            "}";
+    }
+}
@@ -0,0 +1,109 @@
+package de.offersapp.aldiapi.service.crawler;
+
+import de.offersapp.aldiapi.config.ApplicationProperties;
+import de.offersapp.aldiapi.service.OfferIngestService;
+import de.offersapp.aldiapi.service.dto.IngestResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Runs the crawl and ingest of the offers periodically.
+ * <p>
+ * Each run starts after a random delay, so that the site does not see the crawl at the same time every day.
+ * The pages that failed can be crawled again later on their own. A run still in progress makes the next one skip,
+ * and a failed scheduled run is only logged.
+ */
+@Component
+public class CrawlScheduler {
+
+    private final Logger log = LoggerFactory.getLogger(CrawlScheduler.class);
+
+    private final OfferIngestService offerIngestService;
+
+    private final TaskScheduler taskScheduler;
+
+    private final ApplicationProperties applicationProperties;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public CrawlScheduler(OfferIngestService offerIngestService, TaskScheduler taskScheduler,
+                          ApplicationProperties applicationProperties) {
+        this.offerIngestService = offerIngestService;
+        this.taskScheduler = taskScheduler;
+        this.applicationProperties = applicationProperties;
+    }
+
+    /**
+     * Schedule a crawl after a random delay.
+     * <p>
+     * This is scheduled with the {@code application.crawler.schedule.cron} expression, {@code -} disables it.
+     */
+    @Scheduled(cron = "${application.crawler.schedule.cron:-}")
+    public void scheduleCrawl() {
+        long maxJitter = applicationProperties.getCrawler().getSchedule().getMaxJitter();
+        long jitter = maxJitter > 0 ? ThreadLocalRandom.current().nextLong(maxJitter) : 0;
+        log.debug("Scheduling a crawl in {} ms", jitter);
+        taskScheduler.schedule(this::crawl, new Date(System.currentTimeMillis() + jitter));
+    }
+
+    /**
+     * Crawl again the pages that failed in the last crawl, unless a crawl is already running.
+     * <p>
+     * This is scheduled with the {@code application.crawler.schedule.retry-cron} expression, {@code -} disables it.
+     */
+    @Scheduled(cron = "${application.crawler.schedule.retry-cron:-}")
+    public void scheduleRetry() {
+        try {
+            retryFailedPages();
+        } catch (RuntimeException e) {
+            log.error("Retry of the failed pages failed", e);
+        }
+    }
+
+    /**
+     * Crawl and ingest the offers, unless a crawl is already running.
+     *
+     * @return {@code true} if the crawl ran and succeeded.
+     */
+    public boolean crawl() {
+        try {
+            return run("Crawl", offerIngestService::ingestCrawl).isPresent();
+        } catch (RuntimeException e) {
+            log.error("Crawl failed", e);
+            return false;
+        }
+    }
+
+    /**
+     * Crawl again and ingest the pages that failed in the last crawl, unless a crawl is already running.
+     *
+     * @return the summary of the applied changes, or empty if a crawl is already running.
+     */
+    public Optional<IngestResult> retryFailedPages() {
+        return run("Retry of the failed pages", offerIngestService::ingestFailedPages);
+    }
+
+    private Optional<IngestResult> run(String name, Supplier<IngestResult> ingest) {
+        if (!running.compareAndSet(false, true)) {
+            log.warn("A crawl is already running, skipping this one");
+            return Optional.empty();
+        }
+        long start = System.currentTimeMillis();
+        try {
+            IngestResult result = ingest.get();
+            log.info("{} finished in {} ms: {}", name, System.currentTimeMillis() - start, result);
+            return Optional.of(result);
+        } finally {
+            running.set(false);
+        }
+    }
+}
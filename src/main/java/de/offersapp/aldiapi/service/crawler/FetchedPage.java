@@ -0,0 +1,43 @@
+package de.offersapp.aldiapi.service.crawler;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+
+/**
+ * A page returned by the {@link PageFetcher}.
+ * <p>
+ * When the server answered {@code 304 Not Modified}, the body is the one stored in the {@link PageCache}.
+ */
+public class FetchedPage {
+
+    private final String url;
+
+    private final String body;
+
+    private final boolean notModified;
+
+    public FetchedPage(String url, String body, boolean notModified) {
+        this.url = url;
+        this.body = body;
+        this.notModified = notModified;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    /**
+     * @return {@code true} if the page did not change since it was cached.
+     */
+    public boolean isNotModified() {
+        return notModified;
+    }
+
+    public Document parse() {
+        return Jsoup.parse(body, url);
+    }
+}
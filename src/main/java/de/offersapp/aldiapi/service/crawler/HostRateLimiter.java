@@ -0,0 +1,119 @@
+package de.offersapp.aldiapi.service.crawler;
+
+import de.offersapp.aldiapi.config.ApplicationProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket per host, limiting the rate of the requests sent to a site however many pages are fetched
+ * concurrently.
+ * <p>
+ * A host answering with {@code 429 Too Many Requests} or a server error can be paused with
+ * {@link #pause(String, long)}: no token is handed out for it until the pause is over.
+ */
+@Component
+public class HostRateLimiter {
+
+    private final ConcurrentMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    private final double tokensPerNano;
+
+    private final int burst;
+
+    private final LongSupplier nanoClock;
+
+    @Autowired
+    public HostRateLimiter(ApplicationProperties applicationProperties) {
+        this(applicationProperties.getCrawler().getRateLimit(), System::nanoTime);
+    }
+
+    HostRateLimiter(ApplicationProperties.Crawler.RateLimit rateLimit, LongSupplier nanoClock) {
+        this.tokensPerNano = rateLimit.getRequestsPerSecond() / TimeUnit.SECONDS.toNanos(1);
+        this.burst = Math.max(1, rateLimit.getBurst());
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Wait until a request may be sent to the host of the URL.
+     *
+     * @param url the absolute URL of the request.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public void acquire(String url) throws InterruptedException {
+        long waitNanos = reserve(url);
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    /**
+     * Take a token for the host of the URL.
+     *
+     * @param url the absolute URL of the request.
+     * @return the time to wait before sending the request, in nanoseconds.
+     */
+    long reserve(String url) {
+        return bucket(url).reserve(nanoClock.getAsLong());
+    }
+
+    /**
+     * Hand out no token for the host of the URL during the given delay.
+     *
+     * @param url the absolute URL of the throttled request.
+     * @param delayMillis the pause, in milliseconds.
+     */
+    public void pause(String url, long delayMillis) {
+        bucket(url).pause(nanoClock.getAsLong() + TimeUnit.MILLISECONDS.toNanos(delayMillis));
+    }
+
+    private TokenBucket bucket(String url) {
+        return buckets.computeIfAbsent(host(url), host -> new TokenBucket(nanoClock.getAsLong()));
+    }
+
+    private static String host(String url) {
+        String host = URI.create(url).getHost();
+        return host == null ? url : host.toLowerCase();
+    }
+
+    private class TokenBucket {
+
+        private double tokens = burst;
+
+        private long refilledAt;
+
+        TokenBucket(long now) {
+            this.refilledAt = now;
+        }
+
+        /**
+         * Tokens are reserved ahead: a caller finding the bucket empty takes a token it will only own after
+         * waiting, which keeps concurrent callers in line without holding the lock while they sleep.
+         */
+        synchronized long reserve(long now) {
+            if (now > refilledAt) {
+                tokens = Math.min(burst, tokens + (now - refilledAt) * tokensPerNano);
+                refilledAt = now;
+            }
+            tokens -= 1;
+            long waitNanos = tokens >= 0 ? 0 : (long) Math.ceil(-tokens / tokensPerNano);
+            return Math.max(0, refilledAt - now) + waitNanos;
+        }
+
+        /**
+         * The bucket starts refilling at the end of the pause with a single token, so that the requests
+         * resume one at a time instead of in a burst.
+         */
+        synchronized void pause(long until) {
+            if (until > refilledAt) {
+                tokens = Math.min(tokens, 1);
+                refilledAt = until;
+            }
+        }
+    }
+}
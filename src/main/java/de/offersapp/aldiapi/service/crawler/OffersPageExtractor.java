@@ -0,0 +1,62 @@
+package de.offersapp.aldiapi.service.crawler;
+
+import de.offersapp.aldiapi.domain.Offer;
+import org.apache.commons.lang3.StringUtils;
+import org.jsoup.nodes.Document;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Extracts the offers from parsed pages of the site.
+ * <p>
+ * It does no I/O, so that the extraction can be benchmarked on its own.
+ */
+@Component
+public class OffersPageExtractor {
+
+    public static final String OFFERS_PAGES_SELECTOR = "div.wrapper a[href]";
+
+    public static final String FRESH_OFFERS_SELECTOR = "h2.trenner";
+
+    /**
+     * Extract the relative paths of the offers pages linked from the offers index.
+     *
+     * @param document the offers index page.
+     * @return the distinct paths, without fragment.
+     */
+    public List<String> extractOffersPages(Document document) {
+        return document
+            .select(OFFERS_PAGES_SELECTOR)
+            .stream()
+            .map(element -> element.attr("href"))
+            .map(url -> StringUtils.substringBefore(url, "#"))
+            .distinct()
+            .filter(url -> url.startsWith("/"))
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Extract the offers of an offers page, either fresh or weekly offers.
+     *
+     * @param document the offers page.
+     * @return the offers.
+     */
+    public List<Offer> extractOffers(Document document) {
+        if (!document.select(FRESH_OFFERS_SELECTOR).isEmpty()) {
+            return extractFreshOffers(document);
+        } else {
+            return extractWeeklyOffers(document);
+        }
+    }
+
+    public List<Offer> extractFreshOffers(Document document) {
+        return Collections.emptyList();
+    }
+
+    public List<Offer> extractWeeklyOffers(Document document) {
+        return Collections.emptyList();
+    }
+}
@@ -0,0 +1,119 @@
+package de.offersapp.aldiapi.service.crawler;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import de.offersapp.aldiapi.config.ApplicationProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ResourceUtils;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Gzip-compressed archive of fetched pages, used to run the crawl offline.
+ * <p>
+ * In {@code record} mode every page fetched by the {@link PageFetcher} is appended to the archive, in
+ * {@code replay} mode the {@link PageFetcher} serves the archived pages instead of connecting to the site.
+ * Each page is written as its own gzip member, so recording several crawls into the same file is possible.
+ */
+@Component
+public class PageArchive {
+
+    private final Logger log = LoggerFactory.getLogger(PageArchive.class);
+
+    private final ObjectMapper objectMapper;
+
+    private final ApplicationProperties.Crawler.Archive properties;
+
+    private volatile Map<String, ArchivedPage> archivedPages;
+
+    public PageArchive(ObjectMapper objectMapper, ApplicationProperties applicationProperties) {
+        this.objectMapper = objectMapper;
+        this.properties = applicationProperties.getCrawler().getArchive();
+    }
+
+    public boolean isRecording() {
+        return properties.getMode() == ApplicationProperties.Crawler.Archive.Mode.RECORD;
+    }
+
+    public boolean isReplaying() {
+        return properties.getMode() == ApplicationProperties.Crawler.Archive.Mode.REPLAY;
+    }
+
+    /**
+     * Append a page to the archive.
+     *
+     * @param page the page to record.
+     */
+    public synchronized void record(ArchivedPage page) {
+        Path file = Paths.get(properties.getPath());
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(file,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND))) {
+                out.write(objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT).writeValueAsBytes(page));
+                out.write('\n');
+            }
+        } catch (IOException e) {
+            log.warn("Could not record {} in {}: {}", page.getUrl(), file, e.getMessage());
+        }
+    }
+
+    /**
+     * Get an archived page.
+     *
+     * @param url the absolute URL of the page.
+     * @return the page, as last recorded.
+     * @throws IOException if the archive cannot be read or does not contain the page.
+     */
+    public ArchivedPage replay(String url) throws IOException {
+        ArchivedPage page = getArchivedPages().get(url);
+        if (page == null) {
+            throw new FileNotFoundException("No page archived for " + url + " in " + properties.getPath());
+        }
+        return page;
+    }
+
+    private Map<String, ArchivedPage> getArchivedPages() throws IOException {
+        Map<String, ArchivedPage> pages = archivedPages;
+        if (pages == null) {
+            synchronized (this) {
+                pages = archivedPages;
+                if (pages == null) {
+                    pages = load();
+                    archivedPages = pages;
+                }
+            }
+        }
+        return pages;
+    }
+
+    private Map<String, ArchivedPage> load() throws IOException {
+        Map<String, ArchivedPage> pages = new LinkedHashMap<>();
+        try (InputStream in = new GZIPInputStream(ResourceUtils.getURL(properties.getPath()).openStream());
+             MappingIterator<ArchivedPage> iterator = objectMapper.readerFor(ArchivedPage.class).readValues(in)) {
+            while (iterator.hasNext()) {
+                ArchivedPage page = iterator.next();
+                pages.put(page.getUrl(), page);
+            }
+        }
+        log.info("Loaded {} archived pages from {}", pages.size(), properties.getPath());
+        return Collections.unmodifiableMap(pages);
+    }
+}
@@ -0,0 +1,74 @@
+package de.offersapp.aldiapi.service.crawler;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.offersapp.aldiapi.config.ApplicationProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+
+/**
+ * Disk-backed cache of the fetched pages, one JSON file per URL.
+ */
+@Component
+public class PageCache {
+
+    private final Logger log = LoggerFactory.getLogger(PageCache.class);
+
+    private final ObjectMapper objectMapper;
+
+    private final Path directory;
+
+    public PageCache(ObjectMapper objectMapper, ApplicationProperties applicationProperties) {
+        this.objectMapper = objectMapper;
+        this.directory = Paths.get(applicationProperties.getCrawler().getCacheDirectory());
+    }
+
+    /**
+     * Get the cached version of a page.
+     *
+     * @param url the absolute URL of the page.
+     * @return the cached page, or empty if the page was never fetched or its entry is unreadable.
+     */
+    public Optional<CachedPage> get(String url) {
+        Path file = fileFor(url);
+        if (!Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(objectMapper.readValue(file.toFile(), CachedPage.class));
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable page cache entry {}: {}", file, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Store a page, replacing any previous version of it.
+     *
+     * @param page the page to store.
+     */
+    public void put(CachedPage page) {
+        Path file = fileFor(page.getUrl());
+        try {
+            Files.createDirectories(directory);
+            Path tempFile = Files.createTempFile(directory, "page", ".tmp");
+            objectMapper.writeValue(tempFile.toFile(), page);
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Could not store {} in the page cache: {}", page.getUrl(), e.getMessage());
+        }
+    }
+
+    private Path fileFor(String url) {
+        return directory.resolve(DigestUtils.md5DigestAsHex(url.getBytes(StandardCharsets.UTF_8)) + ".json");
+    }
+}
@@ -0,0 +1,190 @@
+package de.offersapp.aldiapi.service.crawler;
+
+import de.offersapp.aldiapi.config.ApplicationProperties;
+import org.jsoup.Connection;
+import org.jsoup.HttpStatusException;
+import org.jsoup.Jsoup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Fetches pages with conditional GET requests, using the {@link PageCache} to store the validators.
+ * <p>
+ * Depending on its mode, the {@link PageArchive} records the fetched pages or serves them instead of the site.
+ * <p>
+ * Requests are throttled by the {@link HostRateLimiter}. Timeouts, {@code 429 Too Many Requests} and server
+ * errors are retried with a jittered exponential backoff, during which the host is paused for all the
+ * crawling threads; a {@code Retry-After} header takes precedence over the computed backoff.
+ */
+@Component
+public class PageFetcher {
+
+    private final Logger log = LoggerFactory.getLogger(PageFetcher.class);
+
+    private final ApplicationProperties applicationProperties;
+
+    private final PageCache pageCache;
+
+    private final PageArchive pageArchive;
+
+    private final HostRateLimiter hostRateLimiter;
+
+    public PageFetcher(ApplicationProperties applicationProperties, PageCache pageCache, PageArchive pageArchive,
+                       HostRateLimiter hostRateLimiter) {
+        this.applicationProperties = applicationProperties;
+        this.pageCache = pageCache;
+        this.pageArchive = pageArchive;
+        this.hostRateLimiter = hostRateLimiter;
+    }
+
+    /**
+     * Fetch a page, sending {@code If-None-Match} and {@code If-Modified-Since} when it is already cached.
+     *
+     * @param url the absolute URL of the page.
+     * @return the fetched page.
+     * @throws IOException if the page could not be fetched, after all retries.
+     */
+    public FetchedPage fetch(String url) throws IOException {
+        if (pageArchive.isReplaying()) {
+            return new FetchedPage(url, pageArchive.replay(url).getBody(), false);
+        }
+
+        Optional<CachedPage> cachedPage = pageCache.get(url);
+        Connection.Response response = execute(url, cachedPage, false);
+
+        if (response.statusCode() == HttpStatus.NOT_MODIFIED.value() && cachedPage.isPresent()) {
+            log.debug("Page {} not modified since {}", url, cachedPage.get().getFetchedAt());
+            record(url, response, cachedPage.get().getBody());
+            return new FetchedPage(url, cachedPage.get().getBody(), true);
+        }
+
+        String body = response.body();
+        record(url, response, body);
+        CachedPage page = new CachedPage();
+        page.setUrl(url);
+        page.setBody(body);
+        page.setEtag(response.header(HttpHeaders.ETAG));
+        page.setLastModified(response.header(HttpHeaders.LAST_MODIFIED));
+        page.setFetchedAt(Instant.now());
+        if (page.getEtag() != null || page.getLastModified() != null) {
+            pageCache.put(page);
+        }
+        return new FetchedPage(url, body, false);
+    }
+
+    /**
+     * Fetch a resource of any content type, such as a picture, with the same rate limit and retries as the pages.
+     * Resources are neither cached nor archived.
+     *
+     * @param url the absolute URL of the resource.
+     * @return the response, whose body is read up to {@code application.crawler.max-resource-size} bytes.
+     * @throws IOException if the resource could not be fetched, after all retries.
+     */
+    public Connection.Response fetchResource(String url) throws IOException {
+        return execute(url, Optional.empty(), true);
+    }
+
+    private Connection.Response execute(String url, Optional<CachedPage> cachedPage, boolean resource) throws IOException {
+        ApplicationProperties.Crawler.Retry retry = applicationProperties.getCrawler().getRetry();
+        for (int attempt = 1; ; attempt++) {
+            acquire(url);
+            Connection connection = Jsoup.connect(url)
+                .timeout(applicationProperties.getCrawler().getTimeout())
+                .ignoreHttpErrors(true);
+            if (resource) {
+                connection
+                    .ignoreContentType(true)
+                    .maxBodySize(applicationProperties.getCrawler().getMaxResourceSize());
+            }
+            cachedPage.ifPresent(page -> {
+                if (page.getEtag() != null) {
+                    connection.header(HttpHeaders.IF_NONE_MATCH, page.getEtag());
+                }
+                if (page.getLastModified() != null) {
+                    connection.header(HttpHeaders.IF_MODIFIED_SINCE, page.getLastModified());
+                }
+            });
+
+            IOException failure;
+            long retryAfter = -1;
+            try {
+                Connection.Response response = connection.execute();
+                int status = response.statusCode();
+                if (status < HttpStatus.BAD_REQUEST.value()) {
+                    return response;
+                }
+                failure = new HttpStatusException("HTTP error fetching URL", status, url);
+                if (status != HttpStatus.TOO_MANY_REQUESTS.value() && status < HttpStatus.INTERNAL_SERVER_ERROR.value()) {
+                    throw failure;
+                }
+                retryAfter = parseRetryAfter(response.header(HttpHeaders.RETRY_AFTER));
+            } catch (SocketTimeoutException e) {
+                failure = e;
+            }
+
+            if (attempt >= retry.getMaxAttempts()) {
+                throw failure;
+            }
+            long backoff = retryAfter >= 0 ? Math.min(retryAfter, retry.getMaxBackoff()) : backoff(retry, attempt);
+            log.warn("Attempt {} to fetch {} failed ({}), retrying in {} ms", attempt, url, failure.getMessage(), backoff);
+            hostRateLimiter.pause(url, backoff);
+        }
+    }
+
+    private void acquire(String url) throws InterruptedIOException {
+        try {
+            hostRateLimiter.acquire(url);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting to fetch " + url);
+        }
+    }
+
+    /**
+     * Jittered between half and all of the exponential backoff, so that the retries of concurrent requests spread
+     * out instead of hitting the site together.
+     */
+    private static long backoff(ApplicationProperties.Crawler.Retry retry, int attempt) {
+        long ceiling = Math.min(retry.getMaxBackoff(), retry.getInitialBackoff() << Math.min(attempt - 1, 30));
+        return ThreadLocalRandom.current().nextLong(ceiling / 2, ceiling + 1);
+    }
+
+    /**
+     * Only the delay-seconds form of {@code Retry-After} is supported, an HTTP date falls back to the backoff.
+     */
+    private static long parseRetryAfter(String retryAfter) {
+        if (retryAfter == null) {
+            return -1;
+        }
+        try {
+            return Math.max(0, Long.parseLong(retryAfter.trim()) * 1000);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Pages not modified are archived with their cached body, so that the archive always holds full responses.
+     */
+    private void record(String url, Connection.Response response, String body) {
+        if (!pageArchive.isRecording()) {
+            return;
+        }
+        ArchivedPage page = new ArchivedPage();
+        page.setUrl(url);
+        page.setStatus(HttpStatus.OK.value());
+        page.getHeaders().putAll(response.headers());
+        page.setBody(body);
+        pageArchive.record(page);
+    }
+}
@@ -0,0 +1,84 @@
+package de.offersapp.aldiapi.service.crawler;
+
+import de.offersapp.aldiapi.config.ApplicationProperties;
+import de.offersapp.aldiapi.service.PictureService;
+import org.jsoup.Connection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Downloads the pictures of the articles on the crawl executor and stores them with the {@link PictureService},
+ * which keeps a single copy of each distinct picture.
+ * <p>
+ * Pictures are not archived, so nothing is downloaded while the {@link PageArchive} replays a crawl.
+ */
+@Component
+public class PictureDownloader {
+
+    private final Logger log = LoggerFactory.getLogger(PictureDownloader.class);
+
+    private final PageFetcher pageFetcher;
+
+    private final PageArchive pageArchive;
+
+    private final PictureService pictureService;
+
+    private final ApplicationProperties applicationProperties;
+
+    private final Executor crawlExecutor;
+
+    public PictureDownloader(PageFetcher pageFetcher, PageArchive pageArchive, PictureService pictureService,
+                             ApplicationProperties applicationProperties,
+                             @Qualifier("crawlExecutor") Executor crawlExecutor) {
+        this.pageFetcher = pageFetcher;
+        this.pageArchive = pageArchive;
+        this.pictureService = pictureService;
+        this.applicationProperties = applicationProperties;
+        this.crawlExecutor = crawlExecutor;
+    }
+
+    /**
+     * Download and store a picture asynchronously.
+     *
+     * @param url the absolute URL of the picture.
+     * @return the checksum of the stored picture, or empty if it could not be downloaded.
+     */
+    public CompletableFuture<Optional<String>> download(String url) {
+        if (pageArchive.isReplaying()) {
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return Optional.of(store(pageFetcher.fetchResource(url)));
+            } catch (IOException | RuntimeException e) {
+                log.warn("Could not download picture {}: {}", url, e.getMessage());
+                return Optional.empty();
+            }
+        }, crawlExecutor);
+    }
+
+    private String store(Connection.Response response) throws IOException {
+        String contentType = response.contentType();
+        if (contentType == null || !contentType.startsWith("image/")) {
+            throw new IOException("Unexpected content type " + contentType);
+        }
+        byte[] data = response.bodyAsBytes();
+        if (data.length >= applicationProperties.getCrawler().getMaxResourceSize()) {
+            throw new IOException("Picture larger than " + applicationProperties.getCrawler().getMaxResourceSize() + " bytes");
+        }
+        try {
+            return pictureService.store(data, contentType).getChecksum();
+        } catch (DataIntegrityViolationException e) {
+            // The same picture was stored concurrently from another URL
+            return pictureService.store(data, contentType).getChecksum();
+        }
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Crawling infrastructure used to fetch the offers pages.
+ */
+package de.offersapp.aldiapi.service.crawler;
@@ -0,0 +1,48 @@
+package de.offersapp.aldiapi.service.dto;
+
+import de.offersapp.aldiapi.domain.Article;
+
+import java.io.Serializable;
+
+/**
+ * An {@link Article} suggested while its description or producer is typed, with only the fields read from the
+ * search index.
+ */
+public class ArticleSuggestionDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Long id;
+
+    private final String description;
+
+    private final String producer;
+
+    public ArticleSuggestionDTO(Article article) {
+        this.id = article.getId();
+        this.description = article.getDescription();
+        this.producer = article.getProducer();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public String getProducer() {
+        return producer;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ArticleSuggestionDTO{" +
+            "id=" + id +
+            ", description='" + description + "'" +
+            ", producer='" + producer + "'" +
+            "}";
+    }
+}
@@ -0,0 +1,73 @@
+package de.offersapp.aldiapi.service.dto;
+
+import de.offersapp.aldiapi.domain.enumeration.ArticleCategory;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+/**
+ * The columns of an {@link de.offersapp.aldiapi.domain.Article} shown in article lists, selected without loading
+ * the entities.
+ */
+public class ArticleSummaryDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Long id;
+
+    private final String description;
+
+    private final String producer;
+
+    private final ArticleCategory category;
+
+    private final BigDecimal price;
+
+    private final String pictureChecksum;
+
+    public ArticleSummaryDTO(Long id, String description, String producer, ArticleCategory category, BigDecimal price,
+                             String pictureChecksum) {
+        this.id = id;
+        this.description = description;
+        this.producer = producer;
+        this.category = category;
+        this.price = price;
+        this.pictureChecksum = pictureChecksum;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public String getProducer() {
+        return producer;
+    }
+
+    public ArticleCategory getCategory() {
+        return category;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public String getPictureChecksum() {
+        return pictureChecksum;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ArticleSummaryDTO{" +
+            "id=" + id +
+            ", description='" + description + "'" +
+            ", producer='" + producer + "'" +
+            ", category='" + category + "'" +
+            ", price=" + price +
+            "}";
+    }
+}
@@ -0,0 +1,130 @@
+package de.offersapp.aldiapi.service.dto;
+
+import org.springframework.data.domain.Sort;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Objects;
+
+/**
+ * Position in a result sorted by a property and then by id, used for keyset pagination.
+ * <p>
+ * A page starts right after the sort value and the id of the last entity of the previous page, so that the
+ * database seeks to it instead of skipping all the previous rows. The cursor is handed to the clients as an
+ * opaque token.
+ */
+public class Cursor implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final String SEPARATOR = ",";
+
+    private final String property;
+
+    private final Sort.Direction direction;
+
+    private final Long id;
+
+    private final String value;
+
+    /**
+     * Create the cursor of the first page.
+     *
+     * @param property the sort property.
+     * @param direction the sort direction, also used for the id.
+     */
+    public Cursor(String property, Sort.Direction direction) {
+        this(property, direction, null, null);
+    }
+
+    private Cursor(String property, Sort.Direction direction, Long id, String value) {
+        this.property = Objects.requireNonNull(property);
+        this.direction = Objects.requireNonNull(direction);
+        this.id = id;
+        this.value = value;
+    }
+
+    /**
+     * Parse a sort parameter such as {@code endDate,desc} into the cursor of the first page.
+     *
+     * @param sort the sort parameter, the direction being ascending by default.
+     * @return the cursor of the first page.
+     * @throws IllegalArgumentException if the direction is invalid.
+     */
+    public static Cursor sortedBy(String sort) {
+        String[] parts = sort.split(SEPARATOR, 2);
+        return new Cursor(parts[0].trim(), parts.length > 1 ? Sort.Direction.fromString(parts[1].trim()) : Sort.Direction.ASC);
+    }
+
+    /**
+     * Decode a cursor returned by {@link #encode()}.
+     *
+     * @param token the encoded cursor.
+     * @return the cursor.
+     * @throws IllegalArgumentException if the token is not a valid cursor.
+     */
+    public static Cursor decode(String token) {
+        String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(SEPARATOR, 4);
+        if (parts.length < 3) {
+            throw new IllegalArgumentException("Invalid cursor " + token);
+        }
+        return new Cursor(parts[0], Sort.Direction.fromString(parts[1]), Long.valueOf(parts[2]), parts.length > 3 ? parts[3] : null);
+    }
+
+    public String encode() {
+        StringBuilder token = new StringBuilder()
+            .append(property).append(SEPARATOR).append(direction).append(SEPARATOR).append(id);
+        if (value != null) {
+            token.append(SEPARATOR).append(value);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param value the sort value of the last entity of the page.
+     * @param id the id of the last entity of the page.
+     * @return the cursor of the next page.
+     */
+    public Cursor after(Object value, Long id) {
+        return new Cursor(property, direction, Objects.requireNonNull(id), value == null ? null : value.toString());
+    }
+
+    public boolean isFirst() {
+        return id == null;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    public Sort.Direction getDirection() {
+        return direction;
+    }
+
+    /**
+     * @return the id of the last entity of the previous page, or {@code null} for the first page.
+     */
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * @return the sort value of the last entity of the previous page, as a string; {@code null} for the first page
+     * or if the value was {@code null}.
+     */
+    public String getValue() {
+        return value;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "Cursor{" +
+            "property='" + property + "'" +
+            ", direction=" + direction +
+            ", id=" + id +
+            ", value='" + value + "'" +
+            "}";
+    }
+}
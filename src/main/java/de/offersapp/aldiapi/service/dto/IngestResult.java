@@ -0,0 +1,101 @@
+package de.offersapp.aldiapi.service.dto;
+
+import java.io.Serializable;
+
+/**
+ * Summary of the changes applied by {@link de.offersapp.aldiapi.service.OfferIngestService}.
+ */
+public class IngestResult implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private int inserted;
+
+    private int updated;
+
+    private int deleted;
+
+    private int unchanged;
+
+    private int linkedPictures;
+
+    private int failed;
+
+    public int getInserted() {
+        return inserted;
+    }
+
+    public void incrementInserted() {
+        inserted++;
+    }
+
+    public int getUpdated() {
+        return updated;
+    }
+
+    public void incrementUpdated() {
+        updated++;
+    }
+
+    public int getDeleted() {
+        return deleted;
+    }
+
+    public void incrementDeleted() {
+        deleted++;
+    }
+
+    public int getUnchanged() {
+        return unchanged;
+    }
+
+    public void incrementUnchanged() {
+        unchanged++;
+    }
+
+    public int getLinkedPictures() {
+        return linkedPictures;
+    }
+
+    public void incrementLinkedPictures() {
+        linkedPictures++;
+    }
+
+    /**
+     * @return the number of offers which could not be ingested; none of their changes are counted.
+     */
+    public int getFailed() {
+        return failed;
+    }
+
+    public void addFailed(int count) {
+        failed += count;
+    }
+
+    /**
+     * Add the changes of another summary to this one.
+     *
+     * @param other the other summary.
+     */
+    public void add(IngestResult other) {
+        inserted += other.inserted;
+        updated += other.updated;
+        deleted += other.deleted;
+        unchanged += other.unchanged;
+        linkedPictures += other.linkedPictures;
+        failed += other.failed;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "IngestResult{" +
+            "inserted=" + inserted +
+            ", updated=" + updated +
+            ", deleted=" + deleted +
+            ", unchanged=" + unchanged +
+            ", linkedPictures=" + linkedPictures +
+            ", failed=" + failed +
+            "}";
+    }
+}
@@ -0,0 +1,44 @@
+package de.offersapp.aldiapi.service.dto;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * A page of a keyset paginated result, along with the cursor of the next page.
+ */
+public class KeysetPage<T> {
+
+    private final List<T> content;
+
+    private final Cursor next;
+
+    private final Long total;
+
+    public KeysetPage(List<T> content, Cursor next) {
+        this(content, next, null);
+    }
+
+    public KeysetPage(List<T> content, Cursor next, Long total) {
+        this.content = content;
+        this.next = next;
+        this.total = total;
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    /**
+     * @return the cursor of the next page, or empty if this page is the last one.
+     */
+    public Optional<Cursor> getNext() {
+        return Optional.ofNullable(next);
+    }
+
+    /**
+     * @return the total number of results, or empty if it was not counted.
+     */
+    public Optional<Long> getTotal() {
+        return Optional.ofNullable(total);
+    }
+}
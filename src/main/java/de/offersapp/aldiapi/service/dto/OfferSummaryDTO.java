@@ -0,0 +1,103 @@
+package de.offersapp.aldiapi.service.dto;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * The columns of an {@link de.offersapp.aldiapi.domain.Offer} and its article shown in offer lists, selected
+ * without loading the entities.
+ */
+public class OfferSummaryDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Long id;
+
+    private final BigDecimal advantage;
+
+    private final String amount;
+
+    private final LocalDate startDate;
+
+    private final LocalDate endDate;
+
+    private final Long articleId;
+
+    private final String articleDescription;
+
+    private final String articleProducer;
+
+    private final BigDecimal articlePrice;
+
+    private final String articlePictureChecksum;
+
+    public OfferSummaryDTO(Long id, BigDecimal advantage, String amount, LocalDate startDate, LocalDate endDate,
+                           Long articleId, String articleDescription, String articleProducer, BigDecimal articlePrice,
+                           String articlePictureChecksum) {
+        this.id = id;
+        this.advantage = advantage;
+        this.amount = amount;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.articleId = articleId;
+        this.articleDescription = articleDescription;
+        this.articleProducer = articleProducer;
+        this.articlePrice = articlePrice;
+        this.articlePictureChecksum = articlePictureChecksum;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public BigDecimal getAdvantage() {
+        return advantage;
+    }
+
+    public String getAmount() {
+        return amount;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public Long getArticleId() {
+        return articleId;
+    }
+
+    public String getArticleDescription() {
+        return articleDescription;
+    }
+
+    public String getArticleProducer() {
+        return articleProducer;
+    }
+
+    public BigDecimal getArticlePrice() {
+        return articlePrice;
+    }
+
+    public String getArticlePictureChecksum() {
+        return articlePictureChecksum;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "OfferSummaryDTO{" +
+            "id=" + id +
+            ", advantage=" + advantage +
+            ", amount='" + amount + "'" +
+            ", startDate='" + startDate + "'" +
+            ", endDate='" + endDate + "'" +
+            ", articleId=" + articleId +
+            ", articleDescription='" + articleDescription + "'" +
+            "}";
+    }
+}
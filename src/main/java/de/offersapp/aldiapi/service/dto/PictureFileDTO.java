@@ -0,0 +1,64 @@
+package de.offersapp.aldiapi.service.dto;
+
+import java.io.Serializable;
+import java.nio.file.Path;
+
+/**
+ * A picture, or one of its thumbnails, written to the disk cache and ready to be served.
+ */
+public class PictureFileDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String checksum;
+
+    private final Integer size;
+
+    private final String contentType;
+
+    private final transient Path path;
+
+    public PictureFileDTO(String checksum, Integer size, String contentType, Path path) {
+        this.checksum = checksum;
+        this.size = size;
+        this.contentType = contentType;
+        this.path = path;
+    }
+
+    public String getChecksum() {
+        return checksum;
+    }
+
+    /**
+     * @return the bounding box of the thumbnail, or {@code null} for the picture itself.
+     */
+    public Integer getSize() {
+        return size;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * @return the strong entity tag of the file, which only depends on the content of the picture and the size.
+     */
+    public String getETag() {
+        return size == null ? checksum : checksum + "-" + size;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "PictureFileDTO{" +
+            "checksum='" + checksum + "'" +
+            ", size=" + size +
+            ", contentType='" + contentType + "'" +
+            ", path=" + path +
+            "}";
+    }
+}
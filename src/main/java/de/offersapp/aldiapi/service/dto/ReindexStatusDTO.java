@@ -0,0 +1,90 @@
+package de.offersapp.aldiapi.service.dto;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Progress of the last full reindex run by {@link de.offersapp.aldiapi.service.SearchReindexService}.
+ */
+public class ReindexStatusDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public enum State {
+        IDLE, RUNNING, SUCCEEDED, FAILED
+    }
+
+    private State state = State.IDLE;
+
+    private Instant startedAt;
+
+    private Instant finishedAt;
+
+    private final Map<String, Long> documents = new LinkedHashMap<>();
+
+    private String error;
+
+    public ReindexStatusDTO() {
+    }
+
+    public ReindexStatusDTO(ReindexStatusDTO other) {
+        this.state = other.state;
+        this.startedAt = other.startedAt;
+        this.finishedAt = other.finishedAt;
+        this.documents.putAll(other.documents);
+        this.error = other.error;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public void setState(State state) {
+        this.state = state;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(Instant startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(Instant finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    /**
+     * @return the number of documents loaded in each new index, by alias.
+     */
+    public Map<String, Long> getDocuments() {
+        return documents;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ReindexStatusDTO{" +
+            "state=" + state +
+            ", startedAt=" + startedAt +
+            ", finishedAt=" + finishedAt +
+            ", documents=" + documents +
+            ", error='" + error + "'" +
+            "}";
+    }
+}
@@ -4,18 +4,27 @@ import de.offersapp.aldiapi.service.ArticleService;
 import de.offersapp.aldiapi.domain.Article;
 import de.offersapp.aldiapi.repository.ArticleRepository;
 import de.offersapp.aldiapi.repository.search.ArticleSearchRepository;
+import de.offersapp.aldiapi.service.dto.ArticleSuggestionDTO;
+import de.offersapp.aldiapi.service.dto.Cursor;
+import de.offersapp.aldiapi.service.dto.KeysetPage;
+import de.offersapp.aldiapi.service.search.SearchIndexer;
+import de.offersapp.aldiapi.service.search.SearchQueries;
+import de.offersapp.aldiapi.service.PictureService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
-
-import static org.elasticsearch.index.query.QueryBuilders.*;
 
 /**
  * Service Implementation for managing {@link Article}.
@@ -24,25 +33,64 @@ import static org.elasticsearch.index.query.QueryBuilders.*;
 @Transactional
 public class ArticleServiceImpl implements ArticleService {
 
+    /**
+     * The base64 pictures, which documents indexed before the pictures moved to their own table still hold.
+     */
+    private static final String[] SEARCH_EXCLUDES = {"picture", "pictureContentType"};
+
     private final Logger log = LoggerFactory.getLogger(ArticleServiceImpl.class);
 
     private final ArticleRepository articleRepository;
 
     private final ArticleSearchRepository articleSearchRepository;
 
-    public ArticleServiceImpl(ArticleRepository articleRepository, ArticleSearchRepository articleSearchRepository) {
+    private final SearchIndexer searchIndexer;
+
+    private final PictureService pictureService;
+
+    public ArticleServiceImpl(ArticleRepository articleRepository, ArticleSearchRepository articleSearchRepository,
+                              PictureService pictureService, SearchIndexer searchIndexer) {
         this.articleRepository = articleRepository;
         this.articleSearchRepository = articleSearchRepository;
+        this.searchIndexer = searchIndexer;
+        this.pictureService = pictureService;
     }
 
     @Override
     public Article save(Article article) {
         log.debug("Request to save Article : {}", article);
         Article result = articleRepository.save(article);
-        articleSearchRepository.save(result);
+        searchIndexer.index(articleSearchRepository, result);
         return result;
     }
 
+    @Override
+    public List<Article> saveAll(List<Article> articles) {
+        log.debug("Request to save {} Articles", articles.size());
+        List<Article> result = articleRepository.saveAll(articles);
+        searchIndexer.indexAll(articleSearchRepository, result);
+        return result;
+    }
+
+    @Override
+    public List<Article> upsertAll(List<Article> articles) {
+        log.debug("Request to upsert {} Articles", articles.size());
+        Set<Long> ids = articles.stream()
+            .map(Article::getId)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toSet());
+        Set<Long> existingIds = ids.isEmpty() ? Collections.emptySet() : articleRepository.lockAllByIdIn(ids).stream()
+            .map(Article::getId)
+            .collect(Collectors.toSet());
+        List<Article> saved = saveAll(articles.stream()
+            .filter(article -> article.getId() == null || existingIds.contains(article.getId()))
+            .collect(Collectors.toList()));
+        Iterator<Article> savedIterator = saved.iterator();
+        return articles.stream()
+            .map(article -> article.getId() == null || existingIds.contains(article.getId()) ? savedIterator.next() : null)
+            .collect(Collectors.toList());
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<Article> findAll() {
@@ -58,19 +106,41 @@ public class ArticleServiceImpl implements ArticleService {
         return articleRepository.findById(id);
     }
 
+    @Override
+    public Optional<Article> savePicture(Long id, byte[] data, String contentType) {
+        log.debug("Request to save the picture of Article : {}", id);
+        return articleRepository.findById(id)
+            .map(article -> save(article.pictureChecksum(pictureService.store(data, contentType).getChecksum())));
+    }
+
     @Override
     public void delete(Long id) {
         log.debug("Request to delete Article : {}", id);
         articleRepository.deleteById(id);
-        articleSearchRepository.deleteById(id);
+        searchIndexer.delete(articleSearchRepository, id);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<Article> search(String query, Pageable pageable) {
+        log.debug("Request to search for a page of Articles for query {}", query);
+        return articleSearchRepository.search(SearchQueries.page(query, pageable, SEARCH_EXCLUDES));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public KeysetPage<Article> search(String query, Cursor cursor, int size) {
+        log.debug("Request to search for Articles for query {} after {}", query, cursor);
+        Page<Article> hits = articleSearchRepository.search(SearchQueries.after(query, cursor, size, SEARCH_EXCLUDES));
+        return SearchQueries.keysetPage(hits, cursor, size, Article::getId);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<Article> search(String query) {
-        log.debug("Request to search Articles for query {}", query);
-        return StreamSupport
-            .stream(articleSearchRepository.search(queryStringQuery(query)).spliterator(), false)
-        .collect(Collectors.toList());
+    public List<ArticleSuggestionDTO> suggest(String prefix, int size) {
+        log.debug("Request to suggest {} Articles for prefix {}", size, prefix);
+        return articleSearchRepository.search(SearchQueries.suggest(prefix, size, "description", "producer"))
+            .map(ArticleSuggestionDTO::new)
+            .getContent();
     }
 }
@@ -0,0 +1,92 @@
+package de.offersapp.aldiapi.service.impl;
+
+import de.offersapp.aldiapi.config.ApplicationProperties;
+import de.offersapp.aldiapi.repository.OfferArchiveRepository;
+import de.offersapp.aldiapi.repository.OfferRepository;
+import de.offersapp.aldiapi.repository.search.OfferSearchRepository;
+import de.offersapp.aldiapi.service.OfferArchiveService;
+import de.offersapp.aldiapi.service.search.SearchIndexer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Service Implementation for archiving the expired {@link de.offersapp.aldiapi.domain.Offer}s.
+ * <p>
+ * Each batch is copied and deleted with set-based statements, without loading the offers.
+ */
+@Service
+public class OfferArchiveServiceImpl implements OfferArchiveService {
+
+    private final Logger log = LoggerFactory.getLogger(OfferArchiveServiceImpl.class);
+
+    private final OfferRepository offerRepository;
+
+    private final OfferArchiveRepository offerArchiveRepository;
+
+    private final OfferSearchRepository offerSearchRepository;
+
+    private final SearchIndexer searchIndexer;
+
+    private final ApplicationProperties.OfferArchive properties;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public OfferArchiveServiceImpl(OfferRepository offerRepository, OfferArchiveRepository offerArchiveRepository,
+                                   OfferSearchRepository offerSearchRepository, ApplicationProperties applicationProperties,
+                                   SearchIndexer searchIndexer, PlatformTransactionManager transactionManager) {
+        this.offerRepository = offerRepository;
+        this.offerArchiveRepository = offerArchiveRepository;
+        this.offerSearchRepository = offerSearchRepository;
+        this.searchIndexer = searchIndexer;
+        this.properties = applicationProperties.getOfferArchive();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Archive the expired offers periodically.
+     * <p>
+     * This is scheduled with the {@code application.offer-archive.cron} expression, {@code -} disables it.
+     */
+    @Scheduled(cron = "${application.offer-archive.cron:-}")
+    public void scheduleArchive() {
+        try {
+            archiveExpiredOffers();
+        } catch (RuntimeException e) {
+            log.error("Archiving the expired Offers failed", e);
+        }
+    }
+
+    @Override
+    public int archiveExpiredOffers() {
+        LocalDate cutoff = LocalDate.now().minusDays(properties.getRetention().toDays());
+        log.debug("Request to archive the Offers which ended before {}", cutoff);
+        int archived = 0;
+        int batch;
+        do {
+            batch = transactionTemplate.execute(status -> archiveBatch(cutoff));
+            archived += batch;
+        } while (batch == properties.getBatchSize());
+        log.info("Archived {} Offers which ended before {}", archived, cutoff);
+        return archived;
+    }
+
+    private int archiveBatch(LocalDate cutoff) {
+        List<Long> ids = offerRepository.findIdsByEndDateBefore(cutoff, PageRequest.of(0, properties.getBatchSize()));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        offerArchiveRepository.archiveOffers(ids, Instant.now());
+        offerRepository.deleteByIdIn(ids);
+        searchIndexer.deleteAll(offerSearchRepository, ids);
+        return ids.size();
+    }
+}
@@ -0,0 +1,350 @@
+package de.offersapp.aldiapi.service.impl;
+
+import de.offersapp.aldiapi.domain.Article;
+import de.offersapp.aldiapi.domain.Offer;
+import de.offersapp.aldiapi.repository.ArticleRepository;
+import de.offersapp.aldiapi.repository.OfferRepository;
+import de.offersapp.aldiapi.service.ArticleService;
+import de.offersapp.aldiapi.service.OfferIngestService;
+import de.offersapp.aldiapi.service.OfferService;
+import de.offersapp.aldiapi.service.OffersParserService;
+import de.offersapp.aldiapi.service.crawler.CrawlResult;
+import de.offersapp.aldiapi.service.crawler.PictureDownloader;
+import de.offersapp.aldiapi.service.dto.IngestResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.DigestUtils;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Service Implementation for storing the parsed {@link Offer}s.
+ * <p>
+ * An offer is identified by its article and start date, and its content by a fingerprint of the article
+ * description, producer, amount, advantage, start date and end date.
+ * <p>
+ * The pictures of the articles without one are downloaded while the offers are ingested, each URL once per run,
+ * and linked to their articles at the end of the run.
+ */
+@Service
+@Transactional
+public class OfferIngestServiceImpl implements OfferIngestService {
+
+    private final Logger log = LoggerFactory.getLogger(OfferIngestServiceImpl.class);
+
+    /**
+     * Matches {@code hibernate.jdbc.batch_size}.
+     */
+    private static final int CHUNK_SIZE = 25;
+
+    private final OfferRepository offerRepository;
+
+    private final ArticleRepository articleRepository;
+
+    private final OfferService offerService;
+
+    private final ArticleService articleService;
+
+    private final OffersParserService offersParserService;
+
+    private final PictureDownloader pictureDownloader;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public OfferIngestServiceImpl(OfferRepository offerRepository, ArticleRepository articleRepository,
+                                  OfferService offerService, ArticleService articleService,
+                                  OffersParserService offersParserService, PictureDownloader pictureDownloader,
+                                  PlatformTransactionManager transactionManager) {
+        this.offerRepository = offerRepository;
+        this.articleRepository = articleRepository;
+        this.offerService = offerService;
+        this.articleService = articleService;
+        this.offersParserService = offersParserService;
+        this.pictureDownloader = pictureDownloader;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * The offers are written and the stale ones deleted in one transaction, and the pictures linked in another one
+     * once they are downloaded, so that no transaction waits for the downloads.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public IngestResult ingest(List<Offer> offers) {
+        log.debug("Request to ingest {} Offers", offers.size());
+        if (offers.isEmpty()) {
+            log.warn("Ignoring an empty crawl, the stored offers are left untouched");
+            return new IngestResult();
+        }
+        Chunk chunk = new Chunk();
+        IngestRun run = transactionTemplate.execute(status -> {
+            IngestRun ingestRun = new IngestRun(loadStoredOffers());
+            offers.forEach(offer -> ingestRun.accept(offer, chunk));
+            ingestRun.deleteStaleOffers();
+            return ingestRun;
+        });
+        run.commit(chunk);
+        Map<Long, String> pictures = run.awaitPictures();
+        transactionTemplate.executeWithoutResult(status -> run.linkPictures(pictures));
+        log.info("Ingested {} Offers: {}", offers.size(), run.result);
+        return run.result;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public IngestResult ingestCrawl() {
+        log.debug("Request to crawl and ingest Offers");
+        return ingestStream(offersParserService::fetchOffers);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public IngestResult ingestFailedPages() {
+        log.debug("Request to ingest the Offers of the failed pages");
+        return ingestStream(offersParserService::retryFailedPages);
+    }
+
+    /**
+     * Stale offers are only deleted after a complete crawl: a resumed or partial crawl does not deliver the offers of
+     * the pages it skipped, which would otherwise look stale.
+     */
+    private IngestResult ingestStream(Function<Consumer<Offer>, CrawlResult> crawl) {
+        IngestRun run = new IngestRun(transactionTemplate.execute(status -> loadStoredOffers()));
+        List<Offer> chunk = new ArrayList<>(CHUNK_SIZE);
+        CrawlResult crawlResult = crawl.apply(offer -> {
+            chunk.add(offer);
+            if (chunk.size() == CHUNK_SIZE) {
+                ingestChunk(run, chunk);
+            }
+        });
+        ingestChunk(run, chunk);
+        if (!crawlResult.isComplete() || run.seenKeys.isEmpty() || run.result.getFailed() > 0) {
+            log.warn("Crawl incomplete, empty or partially ingested, stale offers are not deleted: {}", crawlResult);
+        } else {
+            transactionTemplate.executeWithoutResult(status -> run.deleteStaleOffers());
+        }
+        Map<Long, String> pictures = run.awaitPictures();
+        transactionTemplate.executeWithoutResult(status -> run.linkPictures(pictures));
+        log.info("Ingested {} crawled Offers: {}", run.seenKeys.size(), run.result);
+        return run.result;
+    }
+
+    /**
+     * The offers are written in chunks of the JDBC batch size, so that each chunk is a single batch and a failure only
+     * rolls back its own chunk. The run then forgets the changes of the chunk, and counts its offers as failed.
+     */
+    private void ingestChunk(IngestRun run, List<Offer> offers) {
+        if (offers.isEmpty()) {
+            return;
+        }
+        Chunk chunk = new Chunk();
+        try {
+            transactionTemplate.executeWithoutResult(status -> offers.forEach(offer -> run.accept(offer, chunk)));
+            run.commit(chunk);
+        } catch (RuntimeException e) {
+            run.rollback(chunk, offers.size());
+            log.error("Could not ingest {} Offers", offers.size(), e);
+        }
+        offers.clear();
+    }
+
+    private Map<String, Offer> loadStoredOffers() {
+        Map<String, Offer> storedOffers = new HashMap<>();
+        offerRepository.findAllByEndDateGreaterThanEqualOrEndDateIsNull(LocalDate.now())
+            .forEach(offer -> storedOffers.put(key(offer), offer));
+        return storedOffers;
+    }
+
+    /**
+     * State of one ingest: the current offers not matched yet, the keys of the offers already ingested and the
+     * pictures being downloaded.
+     */
+    private class IngestRun {
+
+        private final Map<String, Offer> storedOffers;
+
+        private final Set<String> seenKeys = new HashSet<>();
+
+        private final IngestResult result = new IngestResult();
+
+        private final Map<String, CompletableFuture<Optional<String>>> pictureDownloads = new HashMap<>();
+
+        private final Map<Long, String> pictureUrls = new HashMap<>();
+
+        IngestRun(Map<String, Offer> storedOffers) {
+            this.storedOffers = storedOffers;
+        }
+
+        void accept(Offer offer, Chunk chunk) {
+            String key = key(offer);
+            if (!seenKeys.add(key)) {
+                log.debug("Ignoring duplicate Offer : {}", offer);
+                return;
+            }
+            chunk.undo.push(() -> seenKeys.remove(key));
+            String pictureUrl = offer.getArticle() == null ? null : offer.getArticle().getPictureUrl();
+            Offer storedOffer = storedOffers.remove(key);
+            if (storedOffer == null) {
+                offer.setArticle(resolveArticle(offer.getArticle()));
+                storedOffer = offerService.save(offer);
+                chunk.result.incrementInserted();
+            } else {
+                Offer matchedOffer = storedOffer;
+                chunk.undo.push(() -> storedOffers.put(key, matchedOffer));
+                if (!fingerprint(storedOffer).equals(fingerprint(offer))) {
+                    BigDecimal advantage = storedOffer.getAdvantage();
+                    String amount = storedOffer.getAmount();
+                    LocalDate endDate = storedOffer.getEndDate();
+                    chunk.undo.push(() -> matchedOffer.advantage(advantage).amount(amount).endDate(endDate));
+                    storedOffer.setAdvantage(offer.getAdvantage());
+                    storedOffer.setAmount(offer.getAmount());
+                    storedOffer.setEndDate(offer.getEndDate());
+                    offerService.save(storedOffer);
+                    chunk.result.incrementUpdated();
+                } else {
+                    chunk.result.incrementUnchanged();
+                }
+            }
+            requestPicture(storedOffer.getArticle(), pictureUrl, chunk);
+        }
+
+        /**
+         * Articles keep their picture once they have one, so a recurring product is not downloaded again. The download
+         * of a chunk which rolls back is not cancelled, but its picture is not linked.
+         */
+        private void requestPicture(Article article, String pictureUrl, Chunk chunk) {
+            if (article == null || pictureUrl == null || article.getPictureChecksum() != null) {
+                return;
+            }
+            Long articleId = article.getId();
+            String previousUrl = pictureUrls.put(articleId, pictureUrl);
+            chunk.undo.push(() -> {
+                if (previousUrl == null) {
+                    pictureUrls.remove(articleId);
+                } else {
+                    pictureUrls.put(articleId, previousUrl);
+                }
+            });
+            pictureDownloads.computeIfAbsent(pictureUrl, pictureDownloader::download);
+        }
+
+        /**
+         * Count the changes of a chunk whose transaction committed.
+         */
+        void commit(Chunk chunk) {
+            result.add(chunk.result);
+        }
+
+        /**
+         * Undo the changes of a chunk whose transaction rolled back, and count its offers as failed.
+         */
+        void rollback(Chunk chunk, int offers) {
+            chunk.undo.forEach(Runnable::run);
+            result.addFailed(offers);
+        }
+
+        /**
+         * Wait for the picture downloads, which should not happen within a transaction.
+         *
+         * @return the checksums of the downloaded pictures by article id.
+         */
+        Map<Long, String> awaitPictures() {
+            Map<Long, String> pictures = new HashMap<>();
+            pictureUrls.forEach((articleId, pictureUrl) -> pictureDownloads.get(pictureUrl).join()
+                .ifPresent(checksum -> pictures.put(articleId, checksum)));
+            return pictures;
+        }
+
+        void linkPictures(Map<Long, String> pictures) {
+            pictures.forEach((articleId, checksum) -> articleRepository.findById(articleId)
+                .filter(article -> !checksum.equals(article.getPictureChecksum()))
+                .ifPresent(article -> {
+                    articleService.save(article.pictureChecksum(checksum));
+                    result.incrementLinkedPictures();
+                }));
+        }
+
+        void deleteStaleOffers() {
+            for (Offer staleOffer : storedOffers.values()) {
+                offerService.delete(staleOffer.getId());
+                result.incrementDeleted();
+            }
+            storedOffers.clear();
+        }
+    }
+
+    /**
+     * Changes of an {@link IngestRun} made within one transaction, which only count once it commits.
+     */
+    private static final class Chunk {
+
+        private final IngestResult result = new IngestResult();
+
+        /**
+         * Restore the state of the run before the chunk, latest change first.
+         */
+        private final Deque<Runnable> undo = new ArrayDeque<>();
+    }
+
+    private Article resolveArticle(Article article) {
+        if (article == null) {
+            return null;
+        }
+        return articleRepository.findFirstByDescriptionAndProducer(article.getDescription(), article.getProducer())
+            .orElseGet(() -> articleService.save(article));
+    }
+
+    private static String key(Offer offer) {
+        Article article = offer.getArticle();
+        return join(
+            article == null ? null : article.getDescription(),
+            article == null ? null : article.getProducer(),
+            offer.getStartDate());
+    }
+
+    private static String fingerprint(Offer offer) {
+        Article article = offer.getArticle();
+        return DigestUtils.md5DigestAsHex(join(
+            article == null ? null : article.getDescription(),
+            article == null ? null : article.getProducer(),
+            offer.getAmount(),
+            offer.getAdvantage() == null ? null : normalize(offer.getAdvantage()),
+            offer.getStartDate(),
+            offer.getEndDate()).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * The database returns the advantage with its column scale, which must not make an unchanged offer look modified.
+     */
+    private static String normalize(BigDecimal value) {
+        return value.stripTrailingZeros().toPlainString();
+    }
+
+    private static String join(Object... values) {
+        return Stream.of(values)
+            .map(value -> Objects.toString(value, ""))
+            .collect(Collectors.joining("\u001f"));
+    }
+}
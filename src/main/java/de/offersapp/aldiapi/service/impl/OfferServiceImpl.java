@@ -4,18 +4,25 @@ import de.offersapp.aldiapi.service.OfferService;
 import de.offersapp.aldiapi.domain.Offer;
 import de.offersapp.aldiapi.repository.OfferRepository;
 import de.offersapp.aldiapi.repository.search.OfferSearchRepository;
+import de.offersapp.aldiapi.service.dto.Cursor;
+import de.offersapp.aldiapi.service.dto.KeysetPage;
+import de.offersapp.aldiapi.service.search.SearchIndexer;
+import de.offersapp.aldiapi.service.search.SearchQueries;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
-
-import static org.elasticsearch.index.query.QueryBuilders.*;
 
 /**
  * Service Implementation for managing {@link Offer}.
@@ -24,25 +31,61 @@ import static org.elasticsearch.index.query.QueryBuilders.*;
 @Transactional
 public class OfferServiceImpl implements OfferService {
 
+    /**
+     * The base64 pictures of the articles, which documents indexed before the pictures moved to their own table still hold.
+     */
+    private static final String[] SEARCH_EXCLUDES = {"article.picture", "article.pictureContentType"};
+
     private final Logger log = LoggerFactory.getLogger(OfferServiceImpl.class);
 
     private final OfferRepository offerRepository;
 
     private final OfferSearchRepository offerSearchRepository;
 
-    public OfferServiceImpl(OfferRepository offerRepository, OfferSearchRepository offerSearchRepository) {
+    private final SearchIndexer searchIndexer;
+
+    public OfferServiceImpl(OfferRepository offerRepository, OfferSearchRepository offerSearchRepository,
+                            SearchIndexer searchIndexer) {
         this.offerRepository = offerRepository;
         this.offerSearchRepository = offerSearchRepository;
+        this.searchIndexer = searchIndexer;
     }
 
     @Override
     public Offer save(Offer offer) {
         log.debug("Request to save Offer : {}", offer);
         Offer result = offerRepository.save(offer);
-        offerSearchRepository.save(result);
+        searchIndexer.index(offerSearchRepository, result);
+        return result;
+    }
+
+    @Override
+    public List<Offer> saveAll(List<Offer> offers) {
+        log.debug("Request to save {} Offers", offers.size());
+        List<Offer> result = offerRepository.saveAll(offers);
+        searchIndexer.indexAll(offerSearchRepository, result);
         return result;
     }
 
+    @Override
+    public List<Offer> upsertAll(List<Offer> offers) {
+        log.debug("Request to upsert {} Offers", offers.size());
+        Set<Long> ids = offers.stream()
+            .map(Offer::getId)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toSet());
+        Set<Long> existingIds = ids.isEmpty() ? Collections.emptySet() : offerRepository.lockAllByIdIn(ids).stream()
+            .map(Offer::getId)
+            .collect(Collectors.toSet());
+        List<Offer> saved = saveAll(offers.stream()
+            .filter(offer -> offer.getId() == null || existingIds.contains(offer.getId()))
+            .collect(Collectors.toList()));
+        Iterator<Offer> savedIterator = saved.iterator();
+        return offers.stream()
+            .map(offer -> offer.getId() == null || existingIds.contains(offer.getId()) ? savedIterator.next() : null)
+            .collect(Collectors.toList());
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<Offer> findAll() {
@@ -62,15 +105,21 @@ public class OfferServiceImpl implements OfferService {
     public void delete(Long id) {
         log.debug("Request to delete Offer : {}", id);
         offerRepository.deleteById(id);
-        offerSearchRepository.deleteById(id);
+        searchIndexer.delete(offerSearchRepository, id);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<Offer> search(String query, Pageable pageable) {
+        log.debug("Request to search for a page of Offers for query {}", query);
+        return offerSearchRepository.search(SearchQueries.page(query, pageable, SEARCH_EXCLUDES));
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<Offer> search(String query) {
-        log.debug("Request to search Offers for query {}", query);
-        return StreamSupport
-            .stream(offerSearchRepository.search(queryStringQuery(query)).spliterator(), false)
-        .collect(Collectors.toList());
+    public KeysetPage<Offer> search(String query, Cursor cursor, int size) {
+        log.debug("Request to search for Offers for query {} after {}", query, cursor);
+        Page<Offer> hits = offerSearchRepository.search(SearchQueries.after(query, cursor, size, SEARCH_EXCLUDES));
+        return SearchQueries.keysetPage(hits, cursor, size, Offer::getId);
     }
 }
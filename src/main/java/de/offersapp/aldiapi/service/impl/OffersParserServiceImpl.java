@@ -1,22 +1,34 @@
 package de.offersapp.aldiapi.service.impl;
 
+import de.offersapp.aldiapi.domain.Article;
 import de.offersapp.aldiapi.domain.Offer;
 import de.offersapp.aldiapi.service.OffersParserService;
-import org.apache.commons.lang3.StringUtils;
-import org.jsoup.Jsoup;
-import org.jsoup.nodes.Document;
-import org.jsoup.select.Elements;
+import de.offersapp.aldiapi.service.crawler.CrawlCheckpoint;
+import de.offersapp.aldiapi.service.crawler.CrawlCheckpointStore;
+import de.offersapp.aldiapi.service.crawler.CrawlResult;
+import de.offersapp.aldiapi.service.crawler.FetchedPage;
+import de.offersapp.aldiapi.service.crawler.OffersPageExtractor;
+import de.offersapp.aldiapi.service.crawler.PageFetcher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
-@Transactional
 public class OffersParserServiceImpl implements OffersParserService {
 
     private final Logger log = LoggerFactory.getLogger(OffersParserServiceImpl.class);
@@ -24,55 +36,151 @@ public class OffersParserServiceImpl implements OffersParserService {
     private final String BASE_URL = "https://www.aldi-sued.de";
     private final String OFFER_URL = "/de/angebote.html";
 
+    private final PageFetcher pageFetcher;
+
+    private final OffersPageExtractor offersPageExtractor;
+
+    private final Executor crawlExecutor;
+
+    private final CrawlCheckpointStore crawlCheckpointStore;
+
+    /**
+     * Offers extracted from each page, reused as long as the page is not modified.
+     */
+    private final ConcurrentMap<String, List<Offer>> extractedOffers = new ConcurrentHashMap<>();
+
+    public OffersParserServiceImpl(PageFetcher pageFetcher, OffersPageExtractor offersPageExtractor,
+                                   @Qualifier("crawlExecutor") Executor crawlExecutor,
+                                   CrawlCheckpointStore crawlCheckpointStore) {
+        this.pageFetcher = pageFetcher;
+        this.offersPageExtractor = offersPageExtractor;
+        this.crawlExecutor = crawlExecutor;
+        this.crawlCheckpointStore = crawlCheckpointStore;
+    }
+
     @Override
     public List<Offer> fetchOffers() {
+        List<Offer> offers = new ArrayList<>();
+        fetchOffers(offers::add);
+        return offers;
+    }
+
+    @Override
+    public CrawlResult fetchOffers(Consumer<Offer> offerConsumer) {
 
+        Optional<CrawlCheckpoint> interrupted = crawlCheckpointStore.load()
+            .filter(checkpoint -> checkpoint.hasPages(CrawlCheckpoint.PageStatus.PENDING));
+        if (interrupted.isPresent()) {
+            log.info("Resuming the crawl started at {}", interrupted.get().getStartedAt());
+            return crawl(interrupted.get(), true, offerConsumer);
+        }
+
+        List<String> pages;
         try {
-            fetchOffersPages().forEach(this::extractOffers);
+            pages = fetchOffersPages();
         } catch (IOException e) {
-            log.error(e.getMessage());
-            return null;
+            log.error("Could not fetch the offers index {}", BASE_URL + OFFER_URL, e);
+            CrawlResult result = new CrawlResult(false);
+            result.setIndexFailed(true);
+            return result;
         }
+        return crawl(crawlCheckpointStore.start(pages), false, offerConsumer);
+    }
 
-        return null;
+    @Override
+    public CrawlResult retryFailedPages(Consumer<Offer> offerConsumer) {
+
+        Optional<CrawlCheckpoint> failed = crawlCheckpointStore.load()
+            .filter(checkpoint -> checkpoint.hasPages(CrawlCheckpoint.PageStatus.FAILED)
+                || checkpoint.hasPages(CrawlCheckpoint.PageStatus.PENDING));
+        if (!failed.isPresent()) {
+            log.info("No failed pages to retry");
+            return new CrawlResult(true);
+        }
+        crawlCheckpointStore.resetFailed(failed.get());
+        return crawl(failed.get(), true, offerConsumer);
     }
 
-    private List<String> fetchOffersPages() throws IOException {
+    /**
+     * Crawl the pending pages of a checkpoint, recording the status of each page as soon as it is delivered.
+     */
+    private CrawlResult crawl(CrawlCheckpoint checkpoint, boolean resumed, Consumer<Offer> offerConsumer) {
 
-        return Jsoup.connect(BASE_URL + OFFER_URL)
-            .get()
-            .select("div.wrapper a[href]")
-            .stream()
-            .map(element -> element.attr("href"))
-            .map(url -> StringUtils.substringBefore(url, "#"))
-            .distinct()
-            .filter(url -> url.startsWith("/"))
+        long start = System.nanoTime();
+        List<String> pages = checkpoint.getPages().entrySet().stream()
+            .filter(entry -> entry.getValue().getStatus() == CrawlCheckpoint.PageStatus.PENDING)
+            .map(Map.Entry::getKey)
             .collect(Collectors.toList());
-    }
 
-    private void extractOffers(String relativePath) {
+        AtomicInteger offersCount = new AtomicInteger();
+        AtomicInteger failedPages = new AtomicInteger();
+        CompletableFuture.allOf(pages.stream()
+            .map(page -> CompletableFuture.runAsync(() -> {
+                try {
+                    List<Offer> offers = extractOffers(page);
+                    synchronized (offerConsumer) {
+                        offers.forEach(offerConsumer);
+                    }
+                    offersCount.addAndGet(offers.size());
+                    crawlCheckpointStore.markDone(checkpoint, page);
+                } catch (IOException | RuntimeException e) {
+                    log.error("Could not crawl {}", page, e);
+                    failedPages.incrementAndGet();
+                    crawlCheckpointStore.markFailed(checkpoint, page, e);
+                }
+            }, crawlExecutor))
+            .toArray(CompletableFuture[]::new))
+            .join();
+
+        CrawlResult result = new CrawlResult(resumed);
+        result.setPages(pages.size());
+        result.setFailedPages(failedPages.get());
+        result.setOffers(offersCount.get());
+
+        long elapsedMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        log.info("Crawled {} pages in {} ms ({} pages/s): {}",
+            pages.size(), elapsedMillis, pages.size() * 1000 / elapsedMillis, result);
+        return result;
+    }
 
-        try {
-            Elements trennerElements = Jsoup.connect(BASE_URL + relativePath)
-                .get()
-                .select("h2.trenner");
-            if (!trennerElements.isEmpty()) {
-                extractFreshOffers();
-            } else {
-                extractWeeklyOffers();
-            }
-        } catch (IOException e) {
-            log.error(e.getMessage());
-        }
+    private List<String> fetchOffersPages() throws IOException {
 
+        return offersPageExtractor.extractOffersPages(pageFetcher.fetch(BASE_URL + OFFER_URL).parse());
     }
 
-    private void extractFreshOffers() {
+    private List<Offer> extractOffers(String relativePath) throws IOException {
 
+        FetchedPage page = pageFetcher.fetch(BASE_URL + relativePath);
+        List<Offer> offers = page.isNotModified() ? extractedOffers.get(page.getUrl()) : null;
+        if (offers == null) {
+            offers = offersPageExtractor.extractOffers(page.parse());
+            extractedOffers.put(page.getUrl(), offers);
+        } else {
+            log.debug("Reusing the offers extracted from {}", page.getUrl());
+        }
+        return offers.stream()
+            .map(OffersParserServiceImpl::copyOf)
+            .collect(Collectors.toList());
     }
 
-    private void extractWeeklyOffers() {
-
+    /**
+     * Offers handed out by {@link #fetchOffers()} may be persisted, so the ones kept for unmodified pages are never
+     * returned directly.
+     */
+    private static Offer copyOf(Offer offer) {
+        Article article = offer.getArticle();
+        return new Offer()
+            .advantage(offer.getAdvantage())
+            .amount(offer.getAmount())
+            .startDate(offer.getStartDate())
+            .endDate(offer.getEndDate())
+            .article(article == null ? null : new Article()
+                .description(article.getDescription())
+                .producer(article.getProducer())
+                .amount(article.getAmount())
+                .category(article.getCategory())
+                .price(article.getPrice())
+                .pictureUrl(article.getPictureUrl()));
     }
 
 
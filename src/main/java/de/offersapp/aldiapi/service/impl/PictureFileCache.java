@@ -0,0 +1,172 @@
+package de.offersapp.aldiapi.service.impl;
+
+import de.offersapp.aldiapi.config.ApplicationProperties;
+import de.offersapp.aldiapi.domain.Picture;
+import de.offersapp.aldiapi.service.dto.PictureFileDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+
+/**
+ * Disk cache of the pictures and of their thumbnails, one file per checksum and size.
+ * <p>
+ * Pictures never change for a given checksum, so the files are never invalidated. The content type of a file is
+ * given by its extension, so that serving a cached file needs neither the database nor a probe of the file.
+ */
+@Component
+public class PictureFileCache {
+
+    private static final String JPEG = "jpg";
+
+    private static final String PNG = "png";
+
+    private final Logger log = LoggerFactory.getLogger(PictureFileCache.class);
+
+    private final ApplicationProperties.Picture properties;
+
+    private final Path directory;
+
+    public PictureFileCache(ApplicationProperties applicationProperties) {
+        this.properties = applicationProperties.getPicture();
+        this.directory = Paths.get(properties.getCacheDirectory());
+    }
+
+    /**
+     * Get a cached picture file.
+     *
+     * @param checksum the checksum of the picture.
+     * @param size the size of the thumbnail, or {@code null} for the picture itself.
+     * @return the file, or empty if it is not cached.
+     */
+    public Optional<PictureFileDTO> get(String checksum, Integer size) {
+        Path shard = directory.resolve(checksum.substring(0, 2));
+        if (!Files.isDirectory(shard)) {
+            return Optional.empty();
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(shard, fileName(checksum, size, "*"))) {
+            for (Path file : files) {
+                return Optional.of(new PictureFileDTO(checksum, size, contentType(file), file));
+            }
+        } catch (IOException e) {
+            log.warn("Could not read the picture cache {}: {}", shard, e.getMessage());
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Write a picture and all its thumbnails to the cache. Pictures that cannot be decoded, such as formats unknown
+     * to {@link ImageIO}, are cached without thumbnails.
+     *
+     * @param picture the picture, with its data.
+     */
+    public void put(Picture picture) {
+        String checksum = picture.getChecksum();
+        try {
+            write(checksum, null, extension(picture.getContentType()), out -> out.write(picture.getData()));
+            BufferedImage image = ImageIO.read(new ByteArrayInputStream(picture.getData()));
+            if (image == null) {
+                log.debug("No thumbnails for Picture {} of type {}", checksum, picture.getContentType());
+                return;
+            }
+            for (Integer size : properties.getThumbnailSizes()) {
+                BufferedImage thumbnail = thumbnail(image, size);
+                String format = thumbnail.getColorModel().hasAlpha() ? PNG : JPEG;
+                write(checksum, size, format, out -> ImageIO.write(thumbnail, format, out));
+            }
+        } catch (IOException e) {
+            log.warn("Could not cache Picture {}: {}", checksum, e.getMessage());
+        }
+    }
+
+    /**
+     * Scale the image down to fit the bounding box, keeping its aspect ratio. Smaller images are not scaled up.
+     */
+    private static BufferedImage thumbnail(BufferedImage image, int size) {
+        double scale = Math.min(1.0, (double) size / Math.max(image.getWidth(), image.getHeight()));
+        int width = Math.max(1, (int) Math.round(image.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(image.getHeight() * scale));
+        boolean alpha = image.getColorModel().hasAlpha();
+        BufferedImage thumbnail = new BufferedImage(width, height, alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = thumbnail.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(image, 0, 0, width, height, alpha ? null : Color.WHITE, null);
+        } finally {
+            graphics.dispose();
+        }
+        return thumbnail;
+    }
+
+    private void write(String checksum, Integer size, String extension, FileWriter writer) throws IOException {
+        Path shard = directory.resolve(checksum.substring(0, 2));
+        Files.createDirectories(shard);
+        Path tempFile = Files.createTempFile(shard, "picture", ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(tempFile)) {
+                writer.write(out);
+            }
+            Files.move(tempFile, shard.resolve(fileName(checksum, size, extension)),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    private static String fileName(String checksum, Integer size, String extension) {
+        return (size == null ? checksum : checksum + "-" + size) + "." + extension;
+    }
+
+    private static String extension(String contentType) {
+        switch (contentType.split(";")[0].trim().toLowerCase()) {
+            case MediaType.IMAGE_JPEG_VALUE:
+            case "image/jpg":
+                return JPEG;
+            case MediaType.IMAGE_PNG_VALUE:
+                return PNG;
+            case MediaType.IMAGE_GIF_VALUE:
+                return "gif";
+            case "image/webp":
+                return "webp";
+            default:
+                return "bin";
+        }
+    }
+
+    private static String contentType(Path file) {
+        String fileName = file.getFileName().toString();
+        switch (fileName.substring(fileName.lastIndexOf('.') + 1)) {
+            case JPEG:
+                return MediaType.IMAGE_JPEG_VALUE;
+            case PNG:
+                return MediaType.IMAGE_PNG_VALUE;
+            case "gif":
+                return MediaType.IMAGE_GIF_VALUE;
+            case "webp":
+                return "image/webp";
+            default:
+                return MediaType.APPLICATION_OCTET_STREAM_VALUE;
+        }
+    }
+
+    @FunctionalInterface
+    private interface FileWriter {
+        void write(OutputStream out) throws IOException;
+    }
+}
@@ -0,0 +1,112 @@
+package de.offersapp.aldiapi.service.impl;
+
+import de.offersapp.aldiapi.domain.Picture;
+import de.offersapp.aldiapi.repository.PictureRepository;
+import de.offersapp.aldiapi.service.PictureService;
+import de.offersapp.aldiapi.service.dto.PictureFileDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Service Implementation for managing {@link Picture}.
+ */
+@Service
+@Transactional
+public class PictureServiceImpl implements PictureService {
+
+    private static final Pattern CHECKSUM_PATTERN = Pattern.compile("[0-9a-f]{64}");
+
+    private final Logger log = LoggerFactory.getLogger(PictureServiceImpl.class);
+
+    private final PictureRepository pictureRepository;
+
+    private final PictureFileCache pictureFileCache;
+
+    public PictureServiceImpl(PictureRepository pictureRepository, PictureFileCache pictureFileCache) {
+        this.pictureRepository = pictureRepository;
+        this.pictureFileCache = pictureFileCache;
+    }
+
+    @Override
+    public Picture store(byte[] data, String contentType) {
+        String checksum = checksum(data);
+        log.debug("Request to store Picture : {}", checksum);
+        return pictureRepository.findOneByChecksum(checksum)
+            .orElseGet(() -> {
+                Picture picture = pictureRepository.saveAndFlush(new Picture()
+                    .checksum(checksum)
+                    .contentType(contentType)
+                    .size((long) data.length)
+                    .data(data));
+                cacheAfterCommit(picture);
+                return picture;
+            });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<PictureFileDTO> findFile(String checksum, Integer size) {
+        log.debug("Request to get the file of Picture : {}, size {}", checksum, size);
+        if (!CHECKSUM_PATTERN.matcher(checksum).matches()) {
+            return Optional.empty();
+        }
+        Optional<PictureFileDTO> file = pictureFileCache.get(checksum, size);
+        if (!file.isPresent()) {
+            Optional<Picture> picture = pictureRepository.findOneByChecksum(checksum);
+            if (!picture.isPresent()) {
+                return Optional.empty();
+            }
+            pictureFileCache.put(picture.get());
+            file = pictureFileCache.get(checksum, size);
+        }
+        if (!file.isPresent() && size != null) {
+            file = pictureFileCache.get(checksum, null);
+        }
+        return file;
+    }
+
+    /**
+     * The thumbnails are generated as soon as a picture is stored, so that the first request for them is as cheap as
+     * the next ones. The files are only written once the picture is committed.
+     */
+    private void cacheAfterCommit(Picture picture) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            pictureFileCache.put(picture);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCommit() {
+                pictureFileCache.put(picture);
+            }
+        });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Picture> findOneByChecksum(String checksum) {
+        log.debug("Request to get Picture : {}", checksum);
+        return pictureRepository.findOneByChecksum(checksum);
+    }
+
+    private static String checksum(byte[] data) {
+        try {
+            StringBuilder checksum = new StringBuilder(64);
+            for (byte b : MessageDigest.getInstance("SHA-256").digest(data)) {
+                checksum.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+            }
+            return checksum.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
+    }
+}
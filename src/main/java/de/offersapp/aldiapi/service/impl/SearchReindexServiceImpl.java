@@ -0,0 +1,377 @@
+package de.offersapp.aldiapi.service.impl;
+
+import de.offersapp.aldiapi.config.ApplicationProperties;
+import de.offersapp.aldiapi.domain.Article;
+import de.offersapp.aldiapi.domain.Offer;
+import de.offersapp.aldiapi.domain.SearchIndexRelayLock;
+import de.offersapp.aldiapi.repository.SearchIndexRelayLockRepository;
+import de.offersapp.aldiapi.service.SearchReindexService;
+import de.offersapp.aldiapi.service.dto.ReindexStatusDTO;
+import de.offersapp.aldiapi.service.search.SearchIndexer;
+import io.searchbox.action.Action;
+import io.searchbox.client.JestClient;
+import io.searchbox.client.JestResult;
+import io.searchbox.indices.aliases.AddAliasMapping;
+import io.searchbox.indices.aliases.AliasMapping;
+import io.searchbox.indices.aliases.GetAliases;
+import io.searchbox.indices.aliases.ModifyAliases;
+import io.searchbox.indices.aliases.RemoveAliasMapping;
+import io.searchbox.indices.settings.UpdateSettings;
+import org.hibernate.jpa.QueryHints;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.elasticsearch.annotations.Mapping;
+import org.springframework.data.elasticsearch.annotations.Setting;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.mapping.ElasticsearchPersistentEntity;
+import org.springframework.data.elasticsearch.core.query.IndexQuery;
+import org.springframework.data.elasticsearch.core.query.IndexQueryBuilder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StreamUtils;
+
+import javax.persistence.EntityManager;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Service Implementation for rebuilding the search indices from the database.
+ * <p>
+ * The search repositories address each index by the alias named after its entity. A reindex loads a new index,
+ * reading the table in id ranges concurrently on the {@code reindexExecutor}, each range with a streaming cursor
+ * and bulk requests of {@code batch-size} documents from the primary database. It then moves the alias from the old
+ * index to the new one in a single atomic request.
+ * <p>
+ * The reindex holds the {@link SearchIndexRelayLock} from before the first load until the last swap, which pauses the
+ * {@link SearchIndexer} relay of every instance. The changes committed meanwhile wait in the outbox, and are relayed
+ * to the new indices once the lock is released, so the indices do not see them until the reindex is over.
+ */
+@Service
+public class SearchReindexServiceImpl implements SearchReindexService {
+
+    private final Logger log = LoggerFactory.getLogger(SearchReindexServiceImpl.class);
+
+    private static final DateTimeFormatter INDEX_SUFFIX = DateTimeFormatter.ofPattern("yyyyMMddHHmmss").withZone(ZoneOffset.UTC);
+
+    private static final String DISABLE_REFRESH = "{\"index\":{\"refresh_interval\":\"-1\"}}";
+
+    private static final String RESET_REFRESH = "{\"index\":{\"refresh_interval\":null}}";
+
+    private final EntityManager entityManager;
+
+    private final ElasticsearchOperations elasticsearchOperations;
+
+    private final JestClient jestClient;
+
+    private final SearchIndexRelayLockRepository searchIndexRelayLockRepository;
+
+    private final Executor taskExecutor;
+
+    private final Executor reindexExecutor;
+
+    private final ApplicationProperties.SearchIndex properties;
+
+    /**
+     * Holds the relay lock for the whole reindex.
+     */
+    private final TransactionTemplate relayLockTransactionTemplate;
+
+    /**
+     * Not read-only, so that the entities are read from the primary database and not from a lagging replica, and
+     * apart from the transaction of the relay lock, so that each read sees the latest commits.
+     */
+    private final TransactionTemplate transactionTemplate;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private ReindexStatusDTO status = new ReindexStatusDTO();
+
+    public SearchReindexServiceImpl(EntityManager entityManager, ElasticsearchOperations elasticsearchOperations,
+                                    JestClient jestClient,
+                                    SearchIndexRelayLockRepository searchIndexRelayLockRepository,
+                                    @Qualifier("taskExecutor") Executor taskExecutor,
+                                    @Qualifier("reindexExecutor") Executor reindexExecutor,
+                                    ApplicationProperties applicationProperties,
+                                    PlatformTransactionManager transactionManager) {
+        this.entityManager = entityManager;
+        this.elasticsearchOperations = elasticsearchOperations;
+        this.jestClient = jestClient;
+        this.searchIndexRelayLockRepository = searchIndexRelayLockRepository;
+        this.taskExecutor = taskExecutor;
+        this.reindexExecutor = reindexExecutor;
+        this.properties = applicationProperties.getSearchIndex();
+        this.relayLockTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public boolean startReindex() {
+        if (!running.compareAndSet(false, true)) {
+            log.warn("A reindex is already running");
+            return false;
+        }
+        synchronized (this) {
+            status = new ReindexStatusDTO();
+            status.setState(ReindexStatusDTO.State.RUNNING);
+            status.setStartedAt(Instant.now());
+        }
+        try {
+            taskExecutor.execute(this::reindexAll);
+        } catch (RuntimeException e) {
+            finish(e);
+            throw e;
+        }
+        return true;
+    }
+
+    @Override
+    public synchronized ReindexStatusDTO getStatus() {
+        return new ReindexStatusDTO(status);
+    }
+
+    private void reindexAll() {
+        log.info("Starting a full reindex");
+        try {
+            relayLockTransactionTemplate.executeWithoutResult(transaction -> {
+                searchIndexRelayLockRepository.lock(SearchIndexRelayLock.ID)
+                    .orElseThrow(() -> new IllegalStateException("The search index relay lock is missing"));
+                reindex(Article.class, "select e from Article e");
+                reindex(Offer.class, "select e from Offer e left join fetch e.article");
+            });
+            finish(null);
+        } catch (RuntimeException e) {
+            RuntimeException cause = e instanceof CompletionException && e.getCause() instanceof RuntimeException
+                ? (RuntimeException) e.getCause() : e;
+            log.error("Reindex failed", cause);
+            finish(cause);
+        }
+    }
+
+    private synchronized void finish(RuntimeException failure) {
+        status.setState(failure == null ? ReindexStatusDTO.State.SUCCEEDED : ReindexStatusDTO.State.FAILED);
+        status.setError(failure == null ? null : failure.getMessage());
+        status.setFinishedAt(Instant.now());
+        log.info("Reindex finished: {}", status);
+        running.set(false);
+    }
+
+    private <T> void reindex(Class<T> type, String query) {
+        ElasticsearchPersistentEntity<?> persistentEntity = elasticsearchOperations.getPersistentEntityFor(type);
+        String alias = persistentEntity.getIndexName();
+        String indexType = persistentEntity.getIndexType();
+        String index = alias + "_" + INDEX_SUFFIX.format(Instant.now());
+        log.info("Reindexing {} into {}", alias, index);
+
+        createIndex(type, index, indexType);
+        boolean swapped = false;
+        try {
+            AtomicLong documents = new AtomicLong();
+            Object[] range = transactionTemplate.execute(transaction -> entityManager
+                .createQuery("select min(e.id), max(e.id) from " + type.getSimpleName() + " e", Object[].class)
+                .getSingleResult());
+            if (range != null && range[0] != null) {
+                CompletableFuture.allOf(partitions((Long) range[0], (Long) range[1], properties.getReindexParallelism()).stream()
+                    .map(partition -> CompletableFuture.runAsync(() ->
+                        documents.addAndGet(load(type, query, index, indexType, partition[0], partition[1])), reindexExecutor))
+                    .toArray(CompletableFuture[]::new))
+                    .join();
+            }
+            execute(new UpdateSettings.Builder(RESET_REFRESH).addIndex(index).build());
+            elasticsearchOperations.refresh(index);
+
+            List<String> oldIndices = swapAlias(alias, index);
+            swapped = true;
+            oldIndices.forEach(elasticsearchOperations::deleteIndex);
+            synchronized (this) {
+                status.getDocuments().put(alias, documents.get());
+            }
+            log.info("Reindexed {} documents of {} into {}", documents.get(), alias, index);
+        } finally {
+            if (!swapped) {
+                elasticsearchOperations.deleteIndex(index);
+            }
+        }
+    }
+
+    /**
+     * Create the index with the settings and mapping of the entity, and without refreshes while it is loaded.
+     */
+    private void createIndex(Class<?> type, String index, String indexType) {
+        Setting setting = AnnotatedElementUtils.findMergedAnnotation(type, Setting.class);
+        if (setting == null) {
+            elasticsearchOperations.createIndex(index);
+        } else {
+            elasticsearchOperations.createIndex(index, readResource(setting.settingPath()));
+        }
+        Mapping mapping = AnnotatedElementUtils.findMergedAnnotation(type, Mapping.class);
+        if (mapping != null) {
+            elasticsearchOperations.putMapping(index, indexType, readResource(mapping.mappingPath()));
+        }
+        execute(new UpdateSettings.Builder(DISABLE_REFRESH).addIndex(index).build());
+    }
+
+    /**
+     * Load the entities of an id range into the index.
+     *
+     * @return the number of loaded entities.
+     */
+    private <T> long load(Class<T> type, String query, String index, String indexType, long fromId, long toId) {
+        int batchSize = properties.getBatchSize();
+        return transactionTemplate.execute(transaction -> {
+            long count = 0;
+            List<IndexQuery> batch = new ArrayList<>(batchSize);
+            try (Stream<T> stream = entityManager.createQuery(query + " where e.id >= :fromId and e.id < :toId order by e.id", type)
+                .setParameter("fromId", fromId)
+                .setParameter("toId", toId)
+                .setHint(QueryHints.HINT_FETCH_SIZE, batchSize)
+                .setHint(QueryHints.HINT_READONLY, true)
+                .getResultStream()) {
+                Iterator<T> iterator = stream.iterator();
+                while (iterator.hasNext()) {
+                    batch.add(indexQuery(index, indexType, iterator.next()));
+                    count++;
+                    if (batch.size() == batchSize) {
+                        elasticsearchOperations.bulkIndex(batch);
+                        batch.clear();
+                        entityManager.clear();
+                    }
+                }
+            }
+            if (!batch.isEmpty()) {
+                elasticsearchOperations.bulkIndex(batch);
+            }
+            log.debug("Loaded {} documents with ids [{}, {}) into {}", count, fromId, toId, index);
+            return count;
+        });
+    }
+
+    /**
+     * Point the alias to the new index only, in one atomic request.
+     *
+     * @return the indices the alias pointed to before, still to be deleted.
+     */
+    private List<String> swapAlias(String alias, String index) {
+        JestResult aliases = execute(new GetAliases.Builder().addIndex(alias).build(), true);
+        List<String> oldIndices = aliases.isSucceeded() ? new ArrayList<>(aliases.getJsonObject().keySet()) : new ArrayList<>();
+        if (oldIndices.contains(alias)) {
+            log.warn("Replacing the index {} by an alias", alias);
+        }
+        execute(swapAliasAction(alias, index, oldIndices));
+        oldIndices.remove(alias);
+        return oldIndices;
+    }
+
+    /**
+     * Build the request moving the alias to the new index. The index the search repository created under the name of
+     * the alias, before the first reindex, is deleted by the same request, so that the alias is never missing.
+     *
+     * @param alias the alias.
+     * @param index the new index.
+     * @param oldIndices the indices the alias points to, or the index named like the alias.
+     * @return the request.
+     */
+    static ModifyAliases swapAliasAction(String alias, String index, Collection<String> oldIndices) {
+        ModifyAliases.Builder modifyAliases = new ModifyAliases.Builder(new AddAliasMapping.Builder(index, alias).build());
+        oldIndices.forEach(oldIndex -> modifyAliases.addAlias(oldIndex.equals(alias)
+            ? new RemoveIndexMapping(oldIndex)
+            : new RemoveAliasMapping.Builder(oldIndex, alias).build()));
+        return modifyAliases.build();
+    }
+
+    private IndexQuery indexQuery(String index, String indexType, Object entity) {
+        Object id = entityManager.getEntityManagerFactory().getPersistenceUnitUtil().getIdentifier(entity);
+        return new IndexQueryBuilder()
+            .withId(String.valueOf(id))
+            .withObject(entity)
+            .withIndexName(index)
+            .withType(indexType)
+            .build();
+    }
+
+    private JestResult execute(Action<JestResult> action) {
+        return execute(action, false);
+    }
+
+    private JestResult execute(Action<JestResult> action, boolean allowNotFound) {
+        try {
+            JestResult result = jestClient.execute(action);
+            if (!result.isSucceeded() && !(allowNotFound && result.getResponseCode() == 404)) {
+                throw new IllegalStateException("Elasticsearch request failed: " + result.getErrorMessage());
+            }
+            return result;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String readResource(String path) {
+        try (InputStream inputStream = new ClassPathResource(path).getInputStream()) {
+            return StreamUtils.copyToString(inputStream, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Split the ids from {@code minId} to {@code maxId} into at most {@code count} ranges of about the same width.
+     *
+     * @return the ranges, each with its first id and the id after its last one.
+     */
+    static List<long[]> partitions(long minId, long maxId, int count) {
+        if (maxId < minId) {
+            return Collections.emptyList();
+        }
+        long width = maxId - minId + 1;
+        long step = Math.max(1, (width + Math.max(1, count) - 1) / Math.max(1, count));
+        List<long[]> partitions = new ArrayList<>();
+        for (long fromId = minId; fromId <= maxId; fromId += step) {
+            partitions.add(new long[]{fromId, Math.min(fromId + step, maxId + 1)});
+        }
+        return partitions;
+    }
+
+    /**
+     * The {@code remove_index} action of the aliases API, which Jest does not provide.
+     */
+    private static final class RemoveIndexMapping extends AliasMapping {
+
+        private final String index;
+
+        private RemoveIndexMapping(String index) {
+            this.index = index;
+        }
+
+        @Override
+        public String getType() {
+            return "remove_index";
+        }
+
+        @Override
+        public List<Map<String, Object>> getData() {
+            return Collections.singletonList(Collections.<String, Object>singletonMap(getType(), Collections.singletonMap("index", index)));
+        }
+    }
+}
@@ -0,0 +1,467 @@
+package de.offersapp.aldiapi.service.search;
+
+import de.offersapp.aldiapi.config.ApplicationProperties;
+import de.offersapp.aldiapi.domain.Article;
+import de.offersapp.aldiapi.domain.Offer;
+import de.offersapp.aldiapi.domain.SearchIndexOutbox;
+import de.offersapp.aldiapi.domain.SearchIndexRelayLock;
+import de.offersapp.aldiapi.repository.ArticleRepository;
+import de.offersapp.aldiapi.repository.OfferRepository;
+import de.offersapp.aldiapi.repository.SearchIndexOutboxRepository;
+import de.offersapp.aldiapi.repository.SearchIndexRelayLockRepository;
+import de.offersapp.aldiapi.repository.search.ArticleSearchRepository;
+import de.offersapp.aldiapi.repository.search.BulkDeleteSearchRepository;
+import de.offersapp.aldiapi.repository.search.OfferSearchRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.elasticsearch.repository.ElasticsearchRepository;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Writes the changes of the search indices to the {@link SearchIndexOutbox} in the transaction of the entity change,
+ * and relays them to Elasticsearch in batches from a background thread, so that the writes to the database neither
+ * wait for Elasticsearch nor fail with it, and the indices catch up with every committed change.
+ * <p>
+ * The relay is woken up when a transaction with changes commits, and polls the outbox every {@code poll-interval}
+ * for the changes committed by other instances or left by a failure. A batch is written once it holds
+ * {@code batch-size} changes, or {@code flush-interval} after the first change, with one bulk request per index for
+ * the documents to index and one for the documents to delete.
+ * It indexes the entities as they are in the database at that time, and deletes the documents of the entities which
+ * no longer exist, so relaying a change again is harmless. A failed batch stays in the outbox, and is retried after a
+ * jittered exponential backoff, outside of any transaction, with half of its changes each time until a single change
+ * is left. A change failing {@code max-attempts} times on its own is left aside in the outbox, so that a document
+ * Elasticsearch rejects does not hold back the changes behind it; a reindex repairs its document.
+ * <p>
+ * Each batch is relayed while holding the {@link SearchIndexRelayLock}, from reading its changes until they are
+ * deleted from the outbox. Two instances relaying at once could otherwise load the same document at different times
+ * and write the older state last, after the change that would repair it has been deleted. An instance finding the
+ * lock taken leaves the outbox to the instance holding it, and checks again at its next wake up. A reindex holds the
+ * lock until its indices are swapped in, so that the changes committed meanwhile are relayed to the new indices.
+ * <p>
+ * In {@code synchronous} mode every change is written straight away, in the calling thread, without the outbox, so a
+ * reindex misses the changes made while it runs.
+ */
+@Component
+public class SearchIndexer {
+
+    private final Logger log = LoggerFactory.getLogger(SearchIndexer.class);
+
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 30;
+
+    private final ApplicationProperties.SearchIndex properties;
+
+    private final Executor searchIndexExecutor;
+
+    private final SearchIndexOutboxRepository searchIndexOutboxRepository;
+
+    private final SearchIndexRelayLockRepository searchIndexRelayLockRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<String, Index<?>> indicesByType = new HashMap<>();
+
+    private final Map<ElasticsearchRepository<?, Long>, Index<?>> indicesByRepository = new IdentityHashMap<>();
+
+    /**
+     * Number of changes committed to the outbox since the relay last woke up.
+     */
+    private final Semaphore committedChanges = new Semaphore(0);
+
+    private final CountDownLatch terminated = new CountDownLatch(1);
+
+    private volatile boolean running;
+
+    public SearchIndexer(ApplicationProperties applicationProperties,
+                         @Qualifier("searchIndexExecutor") Executor searchIndexExecutor,
+                         SearchIndexOutboxRepository searchIndexOutboxRepository,
+                         SearchIndexRelayLockRepository searchIndexRelayLockRepository,
+                         ArticleRepository articleRepository, ArticleSearchRepository articleSearchRepository,
+                         OfferRepository offerRepository, OfferSearchRepository offerSearchRepository,
+                         PlatformTransactionManager transactionManager) {
+        this.properties = applicationProperties.getSearchIndex();
+        this.searchIndexExecutor = searchIndexExecutor;
+        this.searchIndexOutboxRepository = searchIndexOutboxRepository;
+        this.searchIndexRelayLockRepository = searchIndexRelayLockRepository;
+        // Not read-only, so that the entities are read from the primary database and not from a lagging replica
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        register(Article.class, articleRepository, articleSearchRepository);
+        register(Offer.class, offerRepository, offerSearchRepository);
+    }
+
+    private <T, S extends ElasticsearchRepository<T, Long> & BulkDeleteSearchRepository> void register(
+        Class<T> type, JpaRepository<T, Long> repository, S searchRepository) {
+        Index<T> index = new Index<>(type.getSimpleName(), repository, searchRepository, searchRepository);
+        indicesByType.put(index.type, index);
+        indicesByRepository.put(searchRepository, index);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (properties.isSynchronous()) {
+            log.debug("Search index changes are written synchronously");
+            terminated.countDown();
+            return;
+        }
+        running = true;
+        searchIndexExecutor.execute(this::run);
+    }
+
+    /**
+     * Stop the relay once its current batch is written; the changes left in the outbox are relayed after the restart.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        committedChanges.release();
+        if (!terminated.await(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+            log.warn("Search index relay did not stop in time");
+        }
+    }
+
+    /**
+     * Index an entity once the current transaction commits.
+     *
+     * @param repository the search repository of the entity.
+     * @param entity the entity to index.
+     * @param <T> the type of the entity.
+     */
+    public <T> void index(ElasticsearchRepository<T, Long> repository, T entity) {
+        indexAll(repository, Collections.singletonList(entity));
+    }
+
+    /**
+     * Index entities once the current transaction commits.
+     *
+     * @param repository the search repository of the entities.
+     * @param entities the entities to index.
+     * @param <T> the type of the entities.
+     */
+    public <T> void indexAll(ElasticsearchRepository<T, Long> repository, Collection<T> entities) {
+        Index<?> index = indexOf(repository);
+        submit(entities.stream()
+            .map(entity -> new Change(index, idOf(entity), entity))
+            .collect(Collectors.toList()));
+    }
+
+    /**
+     * Remove a document from an index once the current transaction commits.
+     *
+     * @param repository the search repository of the document.
+     * @param id the id of the document.
+     */
+    public void delete(ElasticsearchRepository<?, Long> repository, Long id) {
+        deleteAll(repository, Collections.singletonList(id));
+    }
+
+    /**
+     * Remove documents from an index once the current transaction commits.
+     *
+     * @param repository the search repository of the documents.
+     * @param ids the ids of the documents.
+     */
+    public void deleteAll(ElasticsearchRepository<?, Long> repository, Collection<Long> ids) {
+        Index<?> index = indexOf(repository);
+        submit(ids.stream()
+            .map(id -> new Change(index, id, null))
+            .collect(Collectors.toList()));
+    }
+
+    private Index<?> indexOf(ElasticsearchRepository<?, Long> repository) {
+        Index<?> index = indicesByRepository.get(repository);
+        if (index == null) {
+            throw new IllegalArgumentException("No search index registered for " + repository);
+        }
+        return index;
+    }
+
+    private void submit(List<Change> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        if (properties.isSynchronous()) {
+            try {
+                write(changes);
+            } catch (RuntimeException e) {
+                log.error("Could not write {} search index changes", changes.size(), e);
+            }
+            return;
+        }
+        Instant now = Instant.now();
+        searchIndexOutboxRepository.saveAll(changes.stream()
+            .map(change -> new SearchIndexOutbox(change.index.type, change.id, now))
+            .collect(Collectors.toList()));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    committedChanges.release(changes.size());
+                }
+            });
+        } else {
+            committedChanges.release(changes.size());
+        }
+    }
+
+    private void run() {
+        try {
+            while (running) {
+                awaitChanges();
+                try {
+                    relay();
+                } catch (RuntimeException e) {
+                    log.error("Could not relay the search index changes, retrying in {}", properties.getPollInterval(), e);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Search index relay interrupted");
+        } finally {
+            running = false;
+            terminated.countDown();
+        }
+    }
+
+    /**
+     * Wait for committed changes, or the next poll, then give the batch {@code flush-interval} to fill up.
+     */
+    private void awaitChanges() throws InterruptedException {
+        if (!committedChanges.tryAcquire(properties.getPollInterval().toMillis(), TimeUnit.MILLISECONDS)) {
+            return;
+        }
+        int changes = 1 + committedChanges.drainPermits();
+        long deadline = System.nanoTime() + properties.getFlushInterval().toNanos();
+        while (running && changes < properties.getBatchSize()) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0 || !committedChanges.tryAcquire(remaining, TimeUnit.NANOSECONDS)) {
+                return;
+            }
+            changes += 1 + committedChanges.drainPermits();
+        }
+    }
+
+    /**
+     * Relay the changes of the outbox, oldest first, until it is empty or another instance holds the relay lock. The
+     * backoff after a failed batch is waited for between the transactions, without a connection nor the lock.
+     */
+    private void relay() throws InterruptedException {
+        ApplicationProperties.Crawler.Retry retry = properties.getRetry();
+        int batchSize = properties.getBatchSize();
+        int failures = 0;
+        while (running) {
+            int size = batchSize;
+            RelayOutcome outcome = transactionTemplate.execute(status -> relayBatch(size));
+            if (outcome == RelayOutcome.FAILED) {
+                failures++;
+                batchSize = Math.max(1, batchSize / 2);
+                long backoff = backoff(retry, failures);
+                log.debug("Retrying {} search index changes in {} ms", batchSize, backoff);
+                Thread.sleep(backoff);
+            } else if (outcome == RelayOutcome.MORE) {
+                failures = 0;
+                batchSize = properties.getBatchSize();
+            } else {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Relay the oldest batch of the outbox within a transaction holding the relay lock. Only the rows read are
+     * deleted: a change committed meanwhile stays in the outbox, even if the state it records was already written.
+     * A batch of a single change which cannot be written counts an attempt of the change instead.
+     *
+     * @param batchSize the number of changes of the batch.
+     * @return the outcome of the batch.
+     */
+    private RelayOutcome relayBatch(int batchSize) {
+        if (!searchIndexRelayLockRepository.tryLock(SearchIndexRelayLock.ID).isPresent()) {
+            log.debug("Another instance is relaying the search index changes");
+            return RelayOutcome.DONE;
+        }
+        int maxAttempts = properties.getRetry().getMaxAttempts();
+        List<SearchIndexOutbox> batch = searchIndexOutboxRepository.findOldest(maxAttempts, PageRequest.of(0, batchSize));
+        if (batch.isEmpty()) {
+            return RelayOutcome.DONE;
+        }
+        List<Long> ids = batch.stream().map(SearchIndexOutbox::getId).collect(Collectors.toList());
+        try {
+            write(load(batch));
+        } catch (RuntimeException e) {
+            if (batch.size() > 1) {
+                log.warn("Could not write {} search index changes: {}", batch.size(), e.getMessage());
+                return RelayOutcome.FAILED;
+            }
+            searchIndexOutboxRepository.incrementAttemptsByIdIn(ids);
+            SearchIndexOutbox change = batch.get(0);
+            if (change.getAttempts() + 1 >= maxAttempts) {
+                log.error("Could not write the search index change {} after {} attempts, leaving it aside",
+                    change, maxAttempts, e);
+                return RelayOutcome.MORE;
+            }
+            log.warn("Could not write the search index change {}: {}", change, e.getMessage());
+            return RelayOutcome.FAILED;
+        }
+        searchIndexOutboxRepository.deleteByIdIn(ids);
+        log.debug("Relayed {} search index changes", batch.size());
+        return batch.size() == batchSize ? RelayOutcome.MORE : RelayOutcome.DONE;
+    }
+
+    /**
+     * Read the current state of the entities of a batch of the outbox, within the transaction of the batch.
+     */
+    private List<Change> load(List<SearchIndexOutbox> batch) {
+        Map<Index<?>, Set<Long>> idsByIndex = new LinkedHashMap<>();
+        for (SearchIndexOutbox outbox : batch) {
+            Index<?> index = indicesByType.get(outbox.getDocumentType());
+            if (index == null) {
+                log.warn("Ignoring the change of an unknown search index: {}", outbox);
+                continue;
+            }
+            idsByIndex.computeIfAbsent(index, key -> new LinkedHashSet<>()).add(outbox.getDocumentId());
+        }
+        List<Change> changes = new ArrayList<>();
+        idsByIndex.forEach((index, ids) -> changes.addAll(index.load(ids)));
+        return changes;
+    }
+
+    /**
+     * Write a batch with one bulk request per index. Writes are idempotent, so the documents of a partly written batch
+     * can be written again.
+     */
+    private void write(List<Change> batch) {
+        Map<Index<?>, Map<Long, Change>> changesByIndex = new LinkedHashMap<>();
+        batch.forEach(change -> changesByIndex
+            .computeIfAbsent(change.index, index -> new LinkedHashMap<>())
+            .put(change.id, change));
+        changesByIndex.forEach(this::writeIndex);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void writeIndex(Index<?> index, Map<Long, Change> changes) {
+        List<Object> indexed = new ArrayList<>();
+        List<Long> deleted = new ArrayList<>();
+        changes.values().forEach(change -> {
+            if (change.entity == null) {
+                deleted.add(change.id);
+            } else {
+                indexed.add(change.entity);
+            }
+        });
+        ElasticsearchRepository<Object, Long> searchRepository = (ElasticsearchRepository<Object, Long>) index.searchRepository;
+        if (!indexed.isEmpty()) {
+            searchRepository.saveAll(indexed);
+        }
+        index.bulkDeleteRepository.deleteAllById(deleted);
+    }
+
+    /**
+     * Jittered between half and all of the exponential backoff, like the retries of the crawler.
+     */
+    private static long backoff(ApplicationProperties.Crawler.Retry retry, int attempt) {
+        long ceiling = Math.min(retry.getMaxBackoff(), retry.getInitialBackoff() << Math.min(attempt - 1, 30));
+        return ThreadLocalRandom.current().nextLong(ceiling / 2, ceiling + 1);
+    }
+
+    private static Long idOf(Object entity) {
+        return (Long) new BeanWrapperImpl(entity).getPropertyValue("id");
+    }
+
+    /**
+     * Entity stored in the database and indexed in Elasticsearch.
+     */
+    private static final class Index<T> {
+
+        private final String type;
+
+        private final JpaRepository<T, Long> repository;
+
+        private final ElasticsearchRepository<T, Long> searchRepository;
+
+        private final BulkDeleteSearchRepository bulkDeleteRepository;
+
+        private Index(String type, JpaRepository<T, Long> repository, ElasticsearchRepository<T, Long> searchRepository,
+                      BulkDeleteSearchRepository bulkDeleteRepository) {
+            this.type = type;
+            this.repository = repository;
+            this.searchRepository = searchRepository;
+            this.bulkDeleteRepository = bulkDeleteRepository;
+        }
+
+        /**
+         * Index the entities which exist, delete the documents of the others.
+         */
+        private List<Change> load(Set<Long> ids) {
+            Map<Long, Change> changes = new LinkedHashMap<>();
+            ids.forEach(id -> changes.put(id, new Change(this, id, null)));
+            repository.findAllById(ids).forEach(entity -> {
+                Long id = idOf(entity);
+                changes.put(id, new Change(this, id, entity));
+            });
+            return new ArrayList<>(changes.values());
+        }
+    }
+
+    /**
+     * Outcome of the relay of a batch.
+     */
+    private enum RelayOutcome {
+        /**
+         * The batch was full or a change was left aside, there may be more changes to relay.
+         */
+        MORE,
+        /**
+         * The outbox is empty, or another instance holds the relay lock.
+         */
+        DONE,
+        /**
+         * The batch could not be written, and is retried after a backoff.
+         */
+        FAILED
+    }
+
+    /**
+     * Indexing of an entity, or deletion of its document when there is no entity.
+     */
+    private static final class Change {
+
+        private final Index<?> index;
+
+        private final Long id;
+
+        private final Object entity;
+
+        private Change(Index<?> index, Long id, Object entity) {
+            this.index = index;
+            this.id = id;
+            this.entity = entity;
+        }
+    }
+}
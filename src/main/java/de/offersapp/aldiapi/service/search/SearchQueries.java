@@ -0,0 +1,129 @@
+package de.offersapp.aldiapi.service.search;
+
+import de.offersapp.aldiapi.service.dto.Cursor;
+import de.offersapp.aldiapi.service.dto.KeysetPage;
+import org.elasticsearch.index.query.BoolQueryBuilder;
+import org.elasticsearch.index.query.MultiMatchQueryBuilder;
+import org.elasticsearch.index.query.Operator;
+import org.elasticsearch.search.sort.SortBuilders;
+import org.elasticsearch.search.sort.SortOrder;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.elasticsearch.core.query.FetchSourceFilter;
+import org.springframework.data.elasticsearch.core.query.NativeSearchQueryBuilder;
+import org.springframework.data.elasticsearch.core.query.SearchQuery;
+
+import java.util.List;
+import java.util.function.Function;
+
+import static org.elasticsearch.index.query.QueryBuilders.*;
+
+/**
+ * Builders of the query string searches, which only return a page of the hits and leave the heavy fields of the
+ * documents out of their source.
+ */
+public final class SearchQueries {
+
+    /**
+     * Largest offset plus size of a page, the default {@code index.max_result_window} of Elasticsearch. Deeper
+     * results are reached with a cursor.
+     */
+    public static final int MAX_RESULT_WINDOW = 10000;
+
+    private static final String ID = "id";
+
+    /**
+     * Sub-field of the suggested fields, analyzed into the prefixes of their words.
+     */
+    private static final String SUGGEST = ".suggest";
+
+    private SearchQueries() {
+    }
+
+    /**
+     * Search a page of the hits, by offset.
+     *
+     * @param query the query string.
+     * @param pageable the page, its sort being applied to the hits instead of the relevance.
+     * @param excludes the fields left out of the source of the hits.
+     * @return the search query.
+     */
+    public static SearchQuery page(String query, Pageable pageable, String... excludes) {
+        return new NativeSearchQueryBuilder()
+            .withQuery(queryStringQuery(query))
+            .withPageable(pageable)
+            .withSourceFilter(new FetchSourceFilter(null, excludes))
+            .build();
+    }
+
+    /**
+     * Search the hits following a cursor sorted by id, like {@code search_after}: the hits before the cursor are
+     * filtered out instead of being collected and skipped, so every page costs the same however deep it is.
+     *
+     * @param query the query string.
+     * @param cursor the cursor, sorted by {@code id}.
+     * @param size the number of hits of the page.
+     * @param excludes the fields left out of the source of the hits.
+     * @return the search query, which asks for one more hit to tell whether there is a next page.
+     */
+    public static SearchQuery after(String query, Cursor cursor, int size, String... excludes) {
+        BoolQueryBuilder boolQuery = boolQuery().must(queryStringQuery(query));
+        if (!cursor.isFirst()) {
+            boolQuery.filter(cursor.getDirection().isAscending()
+                ? rangeQuery(ID).gt(cursor.getId())
+                : rangeQuery(ID).lt(cursor.getId()));
+        }
+        return new NativeSearchQueryBuilder()
+            .withQuery(boolQuery)
+            .withSort(SortBuilders.fieldSort(ID).order(cursor.getDirection().isAscending() ? SortOrder.ASC : SortOrder.DESC))
+            .withPageable(PageRequest.of(0, size + 1))
+            .withSourceFilter(new FetchSourceFilter(null, excludes))
+            .build();
+    }
+
+    /**
+     * Search the documents with words starting with the words of a prefix, for a type-ahead.
+     *
+     * @param prefix the typed text.
+     * @param size the number of hits.
+     * @param fields the suggested fields, which need a {@code suggest} sub-field in the mapping of the index; only
+     * they and the id are kept in the source of the hits.
+     * @return the search query.
+     */
+    public static SearchQuery suggest(String prefix, int size, String... fields) {
+        String[] suggestFields = new String[fields.length];
+        String[] includes = new String[fields.length + 1];
+        for (int i = 0; i < fields.length; i++) {
+            suggestFields[i] = fields[i] + SUGGEST;
+            includes[i] = fields[i];
+        }
+        includes[fields.length] = ID;
+        return new NativeSearchQueryBuilder()
+            .withQuery(multiMatchQuery(prefix, suggestFields).type(MultiMatchQueryBuilder.Type.CROSS_FIELDS).operator(Operator.AND))
+            .withPageable(PageRequest.of(0, size))
+            .withSourceFilter(new FetchSourceFilter(includes, null))
+            .build();
+    }
+
+    /**
+     * Turn the hits of {@link #after(String, Cursor, int, String...)} into a page.
+     *
+     * @param hits the hits.
+     * @param cursor the cursor of the search.
+     * @param size the number of hits of the page.
+     * @param id the id of a hit.
+     * @param <T> the type of the hits.
+     * @return the page, with the total number of hits for the first page only, as the following ones only count
+     * the hits after their cursor.
+     */
+    public static <T> KeysetPage<T> keysetPage(Page<T> hits, Cursor cursor, int size, Function<T, Long> id) {
+        List<T> content = hits.getContent();
+        Cursor next = null;
+        if (content.size() > size) {
+            content = content.subList(0, size);
+            next = cursor.after(null, id.apply(content.get(size - 1)));
+        }
+        return new KeysetPage<>(content, next, cursor.isFirst() ? hits.getTotalElements() : null);
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Infrastructure keeping the Elasticsearch indices in line with the database.
+ */
+package de.offersapp.aldiapi.service.search;
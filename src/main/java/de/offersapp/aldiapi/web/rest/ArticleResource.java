@@ -1,24 +1,44 @@
 package de.offersapp.aldiapi.web.rest;
 
+import de.offersapp.aldiapi.config.ApplicationProperties;
 import de.offersapp.aldiapi.domain.Article;
+import de.offersapp.aldiapi.service.PictureService;
+import de.offersapp.aldiapi.service.dto.PictureFileDTO;
 import de.offersapp.aldiapi.service.ArticleService;
 import de.offersapp.aldiapi.web.rest.errors.BadRequestAlertException;
+import de.offersapp.aldiapi.web.rest.vm.BulkItemResultVM;
 import de.offersapp.aldiapi.service.dto.ArticleCriteria;
+import de.offersapp.aldiapi.service.dto.KeysetPage;
+import de.offersapp.aldiapi.service.search.SearchQueries;
+import de.offersapp.aldiapi.service.dto.ArticleSummaryDTO;
+import de.offersapp.aldiapi.service.dto.ArticleSuggestionDTO;
 import de.offersapp.aldiapi.service.ArticleQueryService;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.jhipster.web.util.HeaderUtil;
+import io.github.jhipster.web.util.PaginationUtil;
 import io.github.jhipster.web.util.ResponseUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import javax.validation.Valid;
+import javax.validation.Validator;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.StreamSupport;
 
 import static org.elasticsearch.index.query.QueryBuilders.*;
@@ -34,6 +54,12 @@ public class ArticleResource {
 
     private static final String ENTITY_NAME = "aldiApiArticle";
 
+    private static final Set<String> SEARCH_SORT_PROPERTIES = Collections.singleton("id");
+
+    private static final int DEFAULT_SUGGESTIONS = 10;
+
+    private static final int MAX_SUGGESTIONS = 50;
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
@@ -41,9 +67,23 @@ public class ArticleResource {
 
     private final ArticleQueryService articleQueryService;
 
-    public ArticleResource(ArticleService articleService, ArticleQueryService articleQueryService) {
+    private final Validator validator;
+
+    private final PictureService pictureService;
+
+    private final ApplicationProperties.Picture pictureProperties;
+
+    private final ObjectMapper objectMapper;
+
+    public ArticleResource(ArticleService articleService, ArticleQueryService articleQueryService, Validator validator,
+                           PictureService pictureService, ApplicationProperties applicationProperties,
+                           ObjectMapper objectMapper) {
         this.articleService = articleService;
         this.articleQueryService = articleQueryService;
+        this.validator = validator;
+        this.pictureService = pictureService;
+        this.pictureProperties = applicationProperties.getPicture();
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -86,19 +126,82 @@ public class ArticleResource {
             .body(result);
     }
 
+    /**
+     * {@code POST  /articles/_bulk} : Create or update articles in a single transaction.
+     * <p>
+     * Articles without an ID are created and the others updated. Invalid articles and articles to update that do not exist
+     * are skipped, the other ones are saved.
+     *
+     * @param articles the articles to create or update.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the result of each article, in the
+     * order of the request, or with status {@code 400 (Bad Request)} if there are too many articles or one is {@code null}.
+     */
+    @PostMapping("/articles/_bulk")
+    public ResponseEntity<List<BulkItemResultVM>> bulkSaveArticles(@RequestBody List<Article> articles) {
+        log.debug("REST request to bulk save {} Articles", articles.size());
+        return ResponseEntity.ok(BulkSaveUtil.saveAll(articles, ENTITY_NAME, "article", validator, Article::getId, articleService::upsertAll));
+    }
+
     /**
      * {@code GET  /articles} : get all the articles.
+     * <p>
+     * The articles are paginated as soon as a {@code size} or a {@code cursor} is requested; the {@code Link} header
+     * of each page then points to the next one.
      *
      * @param criteria the criteria which the requested entities should match.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of articles in body.
+     * @param cursor the cursor of the page, from the {@code Link} header of the previous page.
+     * @param size the number of articles of the page.
+     * @param sort the sort of the first page, by {@code id} by default.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of articles in body,
+     * or with status {@code 400 (Bad Request)} if the cursor, size or sort are invalid.
      */
     @GetMapping("/articles")
-    public ResponseEntity<List<Article>> getAllArticles(ArticleCriteria criteria) {
+    public ResponseEntity<List<Article>> getAllArticles(ArticleCriteria criteria,
+                                                        @RequestParam(required = false) String cursor,
+                                                        @RequestParam(required = false) Integer size,
+                                                        @RequestParam(required = false) String sort) {
         log.debug("REST request to get Articles by criteria: {}", criteria);
-        List<Article> entityList = articleQueryService.findByCriteria(criteria);
+        if (cursor == null && size == null) {
+            List<Article> entityList = articleQueryService.findByCriteria(criteria);
+            return ResponseEntity.ok().body(entityList);
+        }
+        KeysetPage<Article> page = articleQueryService.findByCriteria(criteria,
+            CursorPaginationUtil.cursor(cursor, sort, articleQueryService, ENTITY_NAME),
+            CursorPaginationUtil.size(size, ENTITY_NAME));
+        HttpHeaders headers = CursorPaginationUtil.generateNextLinkHeader(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /articles/_summary} : get the summaries of all the articles.
+     *
+     * @param criteria the criteria which the requested entities should match.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of article summaries in body.
+     */
+    @GetMapping("/articles/_summary")
+    public ResponseEntity<List<ArticleSummaryDTO>> getAllArticleSummaries(ArticleCriteria criteria) {
+        log.debug("REST request to get Article summaries by criteria: {}", criteria);
+        List<ArticleSummaryDTO> entityList = articleQueryService.findSummariesByCriteria(criteria);
         return ResponseEntity.ok().body(entityList);
     }
 
+    /**
+     * {@code GET  /articles/_stream} : stream all the articles as newline delimited JSON.
+     * <p>
+     * The articles are written as they are read from the database, so that the memory used does not depend on
+     * the number of matching articles.
+     *
+     * @param criteria the criteria which the requested entities should match.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and one article per line in body.
+     */
+    @GetMapping("/articles/_stream")
+    public ResponseEntity<StreamingResponseBody> streamAllArticles(ArticleCriteria criteria) {
+        log.debug("REST request to stream Articles by criteria: {}", criteria);
+        return ResponseEntity.ok()
+            .contentType(NdjsonUtil.APPLICATION_NDJSON)
+            .body(NdjsonUtil.<Article>stream(objectMapper, consumer -> articleQueryService.streamByCriteria(criteria, consumer)));
+    }
+
     /**
      * {@code GET  /articles/count} : count all the articles.
      *
@@ -124,6 +227,50 @@ public class ArticleResource {
         return ResponseUtil.wrapOrNotFound(article);
     }
 
+    /**
+     * {@code GET  /articles/:id/picture} : get the picture of the "id" article, or one of its thumbnails.
+     * <p>
+     * The picture of an article may change, so clients revalidate it with its entity tag. The picture itself is
+     * cached for good under {@code /pictures/:checksum}.
+     *
+     * @param id the id of the article whose picture to retrieve.
+     * @param size the size of the thumbnail, one of {@code application.picture.thumbnail-sizes}, or none for the picture itself.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)}, {@code 206 (Partial Content)} or {@code 304 (Not Modified)} and with body the picture,
+     * or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/articles/{id}/picture")
+    public ResponseEntity<Resource> getArticlePicture(@PathVariable Long id, @RequestParam(required = false) Integer size) {
+        log.debug("REST request to get the picture of Article : {}, size {}", id, size);
+        PictureResponseUtil.validateSize(size, pictureProperties);
+        Optional<PictureFileDTO> file = articleService.findOne(id)
+            .map(Article::getPictureChecksum)
+            .flatMap(checksum -> pictureService.findFile(checksum, size));
+        return PictureResponseUtil.toResponse(file, CacheControl.noCache().getHeaderValue());
+    }
+
+    /**
+     * {@code PUT  /articles/:id/picture} : Replace the picture of the "id" article.
+     *
+     * @param id the id of the article whose picture to replace.
+     * @param contentType the media type of the picture.
+     * @param data the picture.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated article,
+     * or with status {@code 400 (Bad Request)} if the picture is empty,
+     * or with status {@code 404 (Not Found)} if the article does not exist.
+     */
+    @PutMapping(value = "/articles/{id}/picture", consumes = "image/*")
+    public ResponseEntity<Article> updateArticlePicture(@PathVariable Long id,
+                                                        @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                        @RequestBody byte[] data) {
+        log.debug("REST request to update the picture of Article : {}", id);
+        if (data.length == 0) {
+            throw new BadRequestAlertException("Empty picture", ENTITY_NAME, "pictureempty");
+        }
+        Optional<Article> result = articleService.savePicture(id, data, contentType);
+        return ResponseUtil.wrapOrNotFound(result,
+            HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, id.toString()));
+    }
+
     /**
      * {@code DELETE  /articles/:id} : delete the "id" article.
      *
@@ -138,15 +285,68 @@ public class ArticleResource {
     }
 
     /**
-     * {@code SEARCH  /_search/articles?query=:query} : search for the article corresponding
+     * {@code SEARCH  /_search/articles?query=:query} : search for the articles corresponding
      * to the query.
+     * <p>
+     * The articles are paginated by {@code page} and {@code size}, with the total number of hits in the
+     * {@code X-Total-Count} header, up to {@value SearchQueries#MAX_RESULT_WINDOW} hits. Deeper hits are reached
+     * with a {@code cursor}, empty for the first page, the {@code Link} header of each page then pointing to the
+     * next one; only the first page of a cursor has the {@code X-Total-Count} header. The pictures are left out
+     * of the hits.
      *
      * @param query the query of the article search.
-     * @return the result of the search.
+     * @param pageable the pagination information.
+     * @param cursor the cursor of the page, from the {@code Link} header of the previous page.
+     * @param size the number of articles of the page.
+     * @param sort the sort of the first page of a cursor, by {@code id} only.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the page of articles in body,
+     * or with status {@code 400 (Bad Request)} if the page, cursor, size or sort are invalid.
      */
     @GetMapping("/_search/articles")
-    public List<Article> searchArticles(@RequestParam String query) {
-        log.debug("REST request to search Articles for query {}", query);
-        return articleService.search(query);
+    public ResponseEntity<List<Article>> searchArticles(@RequestParam String query, Pageable pageable,
+                                                  @RequestParam(required = false) String cursor,
+                                                  @RequestParam(required = false) Integer size,
+                                                  @RequestParam(required = false) String sort) {
+        log.debug("REST request to search for a page of Articles for query {}", query);
+        if (cursor == null) {
+            if (pageable.getOffset() + pageable.getPageSize() > SearchQueries.MAX_RESULT_WINDOW) {
+                throw new BadRequestAlertException("Hits beyond " + SearchQueries.MAX_RESULT_WINDOW
+                    + " are only reached with a cursor", ENTITY_NAME, "pageinvalid");
+            }
+            Page<Article> page = articleService.search(query, pageable);
+            HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+            return ResponseEntity.ok().headers(headers).body(page.getContent());
+        }
+        KeysetPage<Article> page = articleService.search(query,
+            CursorPaginationUtil.cursor(cursor.isEmpty() ? null : cursor, sort, SEARCH_SORT_PROPERTIES, ENTITY_NAME),
+            CursorPaginationUtil.size(size, ENTITY_NAME));
+        HttpHeaders headers = CursorPaginationUtil.generateNextLinkHeader(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        page.getTotal().ifPresent(total -> headers.add("X-Total-Count", Long.toString(total)));
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /_suggest/articles?query=:prefix} : suggest the articles while their description or producer is
+     * typed.
+     * <p>
+     * The words of the prefix are matched against the beginnings of the words of the descriptions and producers,
+     * indexed beforehand, so that a suggestion is as cheap as a term lookup.
+     *
+     * @param query the typed text.
+     * @param size the number of suggestions.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the suggestions in body,
+     * or with status {@code 400 (Bad Request)} if the size is invalid.
+     */
+    @GetMapping("/_suggest/articles")
+    public ResponseEntity<List<ArticleSuggestionDTO>> suggestArticles(@RequestParam String query,
+                                                                      @RequestParam(required = false) Integer size) {
+        log.debug("REST request to suggest Articles for prefix {}", query);
+        if (size != null && (size < 1 || size > MAX_SUGGESTIONS)) {
+            throw new BadRequestAlertException("The size must be between 1 and " + MAX_SUGGESTIONS, ENTITY_NAME, "sizeinvalid");
+        }
+        if (query.trim().isEmpty()) {
+            return ResponseEntity.ok().body(Collections.emptyList());
+        }
+        return ResponseEntity.ok().body(articleService.suggest(query, size != null ? size : DEFAULT_SUGGESTIONS));
     }
 }
@@ -0,0 +1,81 @@
+package de.offersapp.aldiapi.web.rest;
+
+import de.offersapp.aldiapi.web.rest.errors.BadRequestAlertException;
+import de.offersapp.aldiapi.web.rest.errors.FieldErrorVM;
+import de.offersapp.aldiapi.web.rest.vm.BulkItemResultVM;
+
+import javax.validation.Validator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Utility class for the {@code _bulk} endpoints, which create or update entities and report the result of each one.
+ */
+final class BulkSaveUtil {
+
+    private static final int MAX_BULK_SIZE = 1000;
+
+    private BulkSaveUtil() {
+    }
+
+    /**
+     * Validate the entities and save the valid ones.
+     *
+     * @param entities the entities to create or update.
+     * @param entityName the name of the entity in the error alerts.
+     * @param objectName the name of the entity in the field errors.
+     * @param validator the validator of the entities.
+     * @param idGetter the getter of the entity id.
+     * @param upsertAll the service saving the entities in a single transaction, with {@code null} in place of the
+     * entities which do not exist.
+     * @param <T> the type of the entities.
+     * @return the result of each entity, in the order of the request.
+     * @throws BadRequestAlertException if there are too many entities or one of them is {@code null}.
+     */
+    static <T> List<BulkItemResultVM> saveAll(List<T> entities, String entityName, String objectName, Validator validator,
+                                              Function<T, Long> idGetter, Function<List<T>, List<T>> upsertAll) {
+        if (entities.size() > MAX_BULK_SIZE) {
+            throw new BadRequestAlertException("A bulk request cannot hold more than " + MAX_BULK_SIZE + " items", entityName, "bulktoolarge");
+        }
+        if (entities.stream().anyMatch(Objects::isNull)) {
+            throw new BadRequestAlertException("A bulk request cannot hold null items", entityName, "bulkitemnull");
+        }
+
+        BulkItemResultVM[] results = new BulkItemResultVM[entities.size()];
+        List<T> validEntities = new ArrayList<>();
+        List<Integer> validIndexes = new ArrayList<>();
+        for (int i = 0; i < entities.size(); i++) {
+            T entity = entities.get(i);
+            List<FieldErrorVM> fieldErrors = validator.validate(entity).stream()
+                .map(violation -> new FieldErrorVM(objectName, violation.getPropertyPath().toString(),
+                    violation.getConstraintDescriptor().getAnnotation().annotationType().getSimpleName()))
+                .collect(Collectors.toList());
+            if (!fieldErrors.isEmpty()) {
+                results[i] = BulkItemResultVM.invalid(i, idGetter.apply(entity), fieldErrors);
+            } else {
+                validEntities.add(entity);
+                validIndexes.add(i);
+            }
+        }
+
+        if (!validEntities.isEmpty()) {
+            List<T> saved = upsertAll.apply(validEntities);
+            for (int j = 0; j < saved.size(); j++) {
+                int i = validIndexes.get(j);
+                Long requestedId = idGetter.apply(validEntities.get(j));
+                if (saved.get(j) == null) {
+                    results[i] = BulkItemResultVM.notFound(i, requestedId);
+                } else if (requestedId != null) {
+                    results[i] = BulkItemResultVM.updated(i, requestedId);
+                } else {
+                    results[i] = BulkItemResultVM.created(i, idGetter.apply(saved.get(j)));
+                }
+            }
+        }
+        return Arrays.asList(results);
+    }
+}
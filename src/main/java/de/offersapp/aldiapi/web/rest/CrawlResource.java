@@ -0,0 +1,45 @@
+package de.offersapp.aldiapi.web.rest;
+
+import de.offersapp.aldiapi.security.AuthoritiesConstants;
+import de.offersapp.aldiapi.service.crawler.CrawlScheduler;
+import de.offersapp.aldiapi.service.dto.IngestResult;
+import de.offersapp.aldiapi.web.rest.errors.BadRequestAlertException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST controller for administrating the crawl of the offers.
+ */
+@RestController
+@RequestMapping("/api/admin")
+@PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+public class CrawlResource {
+
+    private final Logger log = LoggerFactory.getLogger(CrawlResource.class);
+
+    private static final String ENTITY_NAME = "aldiApiCrawl";
+
+    private final CrawlScheduler crawlScheduler;
+
+    public CrawlResource(CrawlScheduler crawlScheduler) {
+        this.crawlScheduler = crawlScheduler;
+    }
+
+    /**
+     * {@code POST  /admin/crawl/_retry} : crawl again the pages that failed in the last crawl and ingest their offers.
+     *
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the summary of the applied changes,
+     * or with status {@code 400 (Bad Request)} if a crawl is already running.
+     */
+    @PostMapping("/crawl/_retry")
+    public ResponseEntity<IngestResult> retryFailedPages() {
+        log.debug("REST request to crawl again the failed pages");
+        return crawlScheduler.retryFailedPages()
+            .map(result -> ResponseEntity.ok().body(result))
+            .orElseThrow(() -> new BadRequestAlertException("A crawl is already running", ENTITY_NAME, "crawlrunning"));
+    }
+}
@@ -0,0 +1,101 @@
+package de.offersapp.aldiapi.web.rest;
+
+import de.offersapp.aldiapi.service.KeysetQueryService;
+import de.offersapp.aldiapi.service.dto.Cursor;
+import de.offersapp.aldiapi.service.dto.KeysetPage;
+import de.offersapp.aldiapi.web.rest.errors.BadRequestAlertException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.Set;
+
+/**
+ * Utility class for handling keyset pagination.
+ * <p>
+ * The {@code cursor} request parameter holds the token of the page; the {@code sort} parameter only applies to the
+ * first page, the following ones keeping the sort of their cursor.
+ */
+final class CursorPaginationUtil {
+
+    static final int DEFAULT_SIZE = 20;
+
+    static final int MAX_SIZE = 1000;
+
+    private static final String DEFAULT_SORT = "id";
+
+    private CursorPaginationUtil() {
+    }
+
+    /**
+     * Resolve the cursor of the requested page.
+     *
+     * @param token the cursor of a previous response, or {@code null} for the first page.
+     * @param sort the sort of the first page, such as {@code id,desc}.
+     * @param sortProperties the supported sort properties.
+     * @param entityName the name of the entity, for the error alert.
+     * @return the cursor.
+     * @throws BadRequestAlertException if the cursor or the sort are invalid.
+     */
+    static Cursor cursor(String token, String sort, Set<String> sortProperties, String entityName) {
+        Cursor cursor;
+        try {
+            cursor = token != null ? Cursor.decode(token) : Cursor.sortedBy(sort != null ? sort : DEFAULT_SORT);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Invalid cursor or sort", entityName, "cursorinvalid");
+        }
+        if (!sortProperties.contains(cursor.getProperty())) {
+            throw new BadRequestAlertException("Sorting is only supported by " + sortProperties, entityName, "sortinvalid");
+        }
+        return cursor;
+    }
+
+    /**
+     * Resolve the cursor of the requested page of a {@link KeysetQueryService}, checking that its value matches
+     * the type of its sort property.
+     *
+     * @param token the cursor of a previous response, or {@code null} for the first page.
+     * @param sort the sort of the first page, such as {@code id,desc}.
+     * @param queryService the query service of the entity.
+     * @param entityName the name of the entity, for the error alert.
+     * @return the cursor.
+     * @throws BadRequestAlertException if the cursor or the sort are invalid.
+     */
+    static Cursor cursor(String token, String sort, KeysetQueryService<?> queryService, String entityName) {
+        Cursor cursor = cursor(token, sort, queryService.getSortProperties(), entityName);
+        try {
+            queryService.validate(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Invalid cursor", entityName, "cursorinvalid");
+        }
+        return cursor;
+    }
+
+    static int size(Integer size, String entityName) {
+        if (size == null) {
+            return DEFAULT_SIZE;
+        }
+        if (size < 1 || size > MAX_SIZE) {
+            throw new BadRequestAlertException("The size must be between 1 and " + MAX_SIZE, entityName, "sizeinvalid");
+        }
+        return size;
+    }
+
+    /**
+     * Generate the {@code Link} header of the next page, if any.
+     *
+     * @param uriBuilder the builder of the current request URI.
+     * @param page the page.
+     * @return the headers.
+     */
+    static HttpHeaders generateNextLinkHeader(UriComponentsBuilder uriBuilder, KeysetPage<?> page) {
+        HttpHeaders headers = new HttpHeaders();
+        page.getNext().ifPresent(next -> {
+            String uri = uriBuilder
+                .replaceQueryParam("cursor", next.encode())
+                .replaceQueryParam("sort")
+                .toUriString();
+            headers.add(HttpHeaders.LINK, "<" + uri + ">; rel=\"next\"");
+        });
+        return headers;
+    }
+}
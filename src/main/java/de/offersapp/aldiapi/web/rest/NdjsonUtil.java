@@ -0,0 +1,51 @@
+package de.offersapp.aldiapi.web.rest;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Utility class for streaming entities as newline delimited JSON, one entity per line.
+ */
+final class NdjsonUtil {
+
+    static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private NdjsonUtil() {
+    }
+
+    /**
+     * Create a response body writing each entity as soon as the source hands it over. The body is written
+     * asynchronously, so the source must open its own transaction.
+     *
+     * @param objectMapper the mapper of the entities.
+     * @param source the source of the entities, handing each of them to the given consumer.
+     * @param <T> the type of the entities.
+     * @return the response body.
+     */
+    static <T> StreamingResponseBody stream(ObjectMapper objectMapper, Consumer<Consumer<T>> source) {
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        return outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.setRootValueSeparator(null);
+                source.accept(entity -> {
+                    try {
+                        writer.writeValue(generator, entity);
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+    }
+}
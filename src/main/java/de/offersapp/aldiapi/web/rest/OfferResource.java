@@ -1,24 +1,39 @@
 package de.offersapp.aldiapi.web.rest;
 
 import de.offersapp.aldiapi.domain.Offer;
+import de.offersapp.aldiapi.domain.OfferArchive;
 import de.offersapp.aldiapi.service.OfferService;
 import de.offersapp.aldiapi.web.rest.errors.BadRequestAlertException;
+import de.offersapp.aldiapi.web.rest.vm.BulkItemResultVM;
 import de.offersapp.aldiapi.service.dto.OfferCriteria;
+import de.offersapp.aldiapi.service.dto.KeysetPage;
+import de.offersapp.aldiapi.service.search.SearchQueries;
+import de.offersapp.aldiapi.service.dto.OfferSummaryDTO;
 import de.offersapp.aldiapi.service.OfferQueryService;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.jhipster.web.util.HeaderUtil;
+import io.github.jhipster.web.util.PaginationUtil;
 import io.github.jhipster.web.util.ResponseUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import javax.validation.Valid;
+import javax.validation.Validator;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.StreamSupport;
 
 import static org.elasticsearch.index.query.QueryBuilders.*;
@@ -34,6 +49,8 @@ public class OfferResource {
 
     private static final String ENTITY_NAME = "aldiApiOffer";
 
+    private static final Set<String> SEARCH_SORT_PROPERTIES = Collections.singleton("id");
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
@@ -41,9 +58,16 @@ public class OfferResource {
 
     private final OfferQueryService offerQueryService;
 
-    public OfferResource(OfferService offerService, OfferQueryService offerQueryService) {
+    private final Validator validator;
+
+    private final ObjectMapper objectMapper;
+
+    public OfferResource(OfferService offerService, OfferQueryService offerQueryService, Validator validator,
+                         ObjectMapper objectMapper) {
         this.offerService = offerService;
         this.offerQueryService = offerQueryService;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -86,19 +110,97 @@ public class OfferResource {
             .body(result);
     }
 
+    /**
+     * {@code POST  /offers/_bulk} : Create or update offers in a single transaction.
+     * <p>
+     * Offers without an ID are created and the others updated. Invalid offers and offers to update that do not exist
+     * are skipped, the other ones are saved.
+     *
+     * @param offers the offers to create or update.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the result of each offer, in the
+     * order of the request, or with status {@code 400 (Bad Request)} if there are too many offers or one is {@code null}.
+     */
+    @PostMapping("/offers/_bulk")
+    public ResponseEntity<List<BulkItemResultVM>> bulkSaveOffers(@RequestBody List<Offer> offers) {
+        log.debug("REST request to bulk save {} Offers", offers.size());
+        return ResponseEntity.ok(BulkSaveUtil.saveAll(offers, ENTITY_NAME, "offer", validator, Offer::getId, offerService::upsertAll));
+    }
+
     /**
      * {@code GET  /offers} : get all the offers.
+     * <p>
+     * The offers are paginated as soon as a {@code size} or a {@code cursor} is requested; the {@code Link} header
+     * of each page then points to the next one.
      *
      * @param criteria the criteria which the requested entities should match.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of offers in body.
+     * @param cursor the cursor of the page, from the {@code Link} header of the previous page.
+     * @param size the number of offers of the page.
+     * @param sort the sort of the first page, by {@code id} by default.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of offers in body,
+     * or with status {@code 400 (Bad Request)} if the cursor, size or sort are invalid.
      */
     @GetMapping("/offers")
-    public ResponseEntity<List<Offer>> getAllOffers(OfferCriteria criteria) {
+    public ResponseEntity<List<Offer>> getAllOffers(OfferCriteria criteria,
+                                                    @RequestParam(required = false) String cursor,
+                                                    @RequestParam(required = false) Integer size,
+                                                    @RequestParam(required = false) String sort) {
         log.debug("REST request to get Offers by criteria: {}", criteria);
-        List<Offer> entityList = offerQueryService.findByCriteria(criteria);
+        if (cursor == null && size == null) {
+            List<Offer> entityList = offerQueryService.findByCriteria(criteria);
+            return ResponseEntity.ok().body(entityList);
+        }
+        KeysetPage<Offer> page = offerQueryService.findByCriteria(criteria,
+            CursorPaginationUtil.cursor(cursor, sort, offerQueryService, ENTITY_NAME),
+            CursorPaginationUtil.size(size, ENTITY_NAME));
+        HttpHeaders headers = CursorPaginationUtil.generateNextLinkHeader(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /offers/_summary} : get the summaries of all the offers.
+     *
+     * @param criteria the criteria which the requested entities should match.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of offer summaries in body.
+     */
+    @GetMapping("/offers/_summary")
+    public ResponseEntity<List<OfferSummaryDTO>> getAllOfferSummaries(OfferCriteria criteria) {
+        log.debug("REST request to get Offer summaries by criteria: {}", criteria);
+        List<OfferSummaryDTO> entityList = offerQueryService.findSummariesByCriteria(criteria);
         return ResponseEntity.ok().body(entityList);
     }
 
+    /**
+     * {@code GET  /offers/_stream} : stream all the offers as newline delimited JSON.
+     * <p>
+     * The offers are written as they are read from the database, so that the memory used does not depend on
+     * the number of matching offers.
+     *
+     * @param criteria the criteria which the requested entities should match.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and one offer per line in body.
+     */
+    @GetMapping("/offers/_stream")
+    public ResponseEntity<StreamingResponseBody> streamAllOffers(OfferCriteria criteria) {
+        log.debug("REST request to stream Offers by criteria: {}", criteria);
+        return ResponseEntity.ok()
+            .contentType(NdjsonUtil.APPLICATION_NDJSON)
+            .body(NdjsonUtil.<Offer>stream(objectMapper, consumer -> offerQueryService.streamByCriteria(criteria, consumer)));
+    }
+
+    /**
+     * {@code GET  /offers/_history} : get the archived offers.
+     *
+     * @param criteria the criteria which the requested archived entities should match.
+     * @param pageable the pagination information.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of archived offers in body.
+     */
+    @GetMapping("/offers/_history")
+    public ResponseEntity<List<OfferArchive>> getOfferHistory(OfferCriteria criteria, Pageable pageable) {
+        log.debug("REST request to get the Offer history by criteria: {}", criteria);
+        Page<OfferArchive> page = offerQueryService.findHistoryByCriteria(criteria, pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
     /**
      * {@code GET  /offers/count} : count all the offers.
      *
@@ -138,15 +240,43 @@ public class OfferResource {
     }
 
     /**
-     * {@code SEARCH  /_search/offers?query=:query} : search for the offer corresponding
+     * {@code SEARCH  /_search/offers?query=:query} : search for the offers corresponding
      * to the query.
+     * <p>
+     * The offers are paginated by {@code page} and {@code size}, with the total number of hits in the
+     * {@code X-Total-Count} header, up to {@value SearchQueries#MAX_RESULT_WINDOW} hits. Deeper hits are reached
+     * with a {@code cursor}, empty for the first page, the {@code Link} header of each page then pointing to the
+     * next one; only the first page of a cursor has the {@code X-Total-Count} header. The pictures are left out
+     * of the hits.
      *
      * @param query the query of the offer search.
-     * @return the result of the search.
+     * @param pageable the pagination information.
+     * @param cursor the cursor of the page, from the {@code Link} header of the previous page.
+     * @param size the number of offers of the page.
+     * @param sort the sort of the first page of a cursor, by {@code id} only.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the page of offers in body,
+     * or with status {@code 400 (Bad Request)} if the page, cursor, size or sort are invalid.
      */
     @GetMapping("/_search/offers")
-    public List<Offer> searchOffers(@RequestParam String query) {
-        log.debug("REST request to search Offers for query {}", query);
-        return offerService.search(query);
+    public ResponseEntity<List<Offer>> searchOffers(@RequestParam String query, Pageable pageable,
+                                                  @RequestParam(required = false) String cursor,
+                                                  @RequestParam(required = false) Integer size,
+                                                  @RequestParam(required = false) String sort) {
+        log.debug("REST request to search for a page of Offers for query {}", query);
+        if (cursor == null) {
+            if (pageable.getOffset() + pageable.getPageSize() > SearchQueries.MAX_RESULT_WINDOW) {
+                throw new BadRequestAlertException("Hits beyond " + SearchQueries.MAX_RESULT_WINDOW
+                    + " are only reached with a cursor", ENTITY_NAME, "pageinvalid");
+            }
+            Page<Offer> page = offerService.search(query, pageable);
+            HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+            return ResponseEntity.ok().headers(headers).body(page.getContent());
+        }
+        KeysetPage<Offer> page = offerService.search(query,
+            CursorPaginationUtil.cursor(cursor.isEmpty() ? null : cursor, sort, SEARCH_SORT_PROPERTIES, ENTITY_NAME),
+            CursorPaginationUtil.size(size, ENTITY_NAME));
+        HttpHeaders headers = CursorPaginationUtil.generateNextLinkHeader(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        page.getTotal().ifPresent(total -> headers.add("X-Total-Count", Long.toString(total)));
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 }
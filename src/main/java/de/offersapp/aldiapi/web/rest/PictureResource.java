@@ -0,0 +1,55 @@
+package de.offersapp.aldiapi.web.rest;
+
+import de.offersapp.aldiapi.config.ApplicationProperties;
+import de.offersapp.aldiapi.service.PictureService;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * REST controller for serving {@link de.offersapp.aldiapi.domain.Picture}s.
+ * <p>
+ * Pictures are addressed by the checksum of their content and served from the disk cache as files, so that the
+ * response is streamed without going through the database or JSON. Range requests are answered with partial content.
+ */
+@RestController
+@RequestMapping("/api")
+public class PictureResource {
+
+    private final Logger log = LoggerFactory.getLogger(PictureResource.class);
+
+    private final PictureService pictureService;
+
+    private final ApplicationProperties.Picture properties;
+
+    public PictureResource(PictureService pictureService, ApplicationProperties applicationProperties) {
+        this.pictureService = pictureService;
+        this.properties = applicationProperties.getPicture();
+    }
+
+    /**
+     * {@code GET  /pictures/:checksum} : get the picture with the given checksum, or one of its thumbnails.
+     * <p>
+     * The content of a checksum never changes, so the picture is cached by the clients for
+     * {@code application.picture.max-age}.
+     *
+     * @param checksum the SHA-256 checksum of the picture.
+     * @param size the size of the thumbnail, one of {@code application.picture.thumbnail-sizes}, or none for the picture itself.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)}, {@code 206 (Partial Content)} or {@code 304 (Not Modified)} and with body the picture,
+     * or with status {@code 400 (Bad Request)} if the size is not supported,
+     * or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/pictures/{checksum}")
+    public ResponseEntity<Resource> getPicture(@PathVariable String checksum, @RequestParam(required = false) Integer size) {
+        log.debug("REST request to get Picture : {}, size {}", checksum, size);
+        PictureResponseUtil.validateSize(size, properties);
+        CacheControl cacheControl = CacheControl.maxAge(properties.getMaxAge().getSeconds(), TimeUnit.SECONDS).cachePrivate();
+        return PictureResponseUtil.toResponse(pictureService.findFile(checksum, size), cacheControl.getHeaderValue() + ", immutable");
+    }
+}
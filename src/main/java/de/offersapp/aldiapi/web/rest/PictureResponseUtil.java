@@ -0,0 +1,54 @@
+package de.offersapp.aldiapi.web.rest;
+
+import de.offersapp.aldiapi.config.ApplicationProperties;
+import de.offersapp.aldiapi.service.dto.PictureFileDTO;
+import de.offersapp.aldiapi.web.rest.errors.BadRequestAlertException;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Optional;
+
+/**
+ * Utility class for serving the files of the {@link de.offersapp.aldiapi.domain.Picture}s.
+ */
+final class PictureResponseUtil {
+
+    private static final String ENTITY_NAME = "aldiApiPicture";
+
+    private PictureResponseUtil() {
+    }
+
+    /**
+     * Check the requested thumbnail size.
+     *
+     * @param size the size of the thumbnail, or {@code null} for the picture itself.
+     * @param properties the picture properties.
+     * @throws BadRequestAlertException if the size is not one of {@code application.picture.thumbnail-sizes}.
+     */
+    static void validateSize(Integer size, ApplicationProperties.Picture properties) {
+        if (size != null && !properties.getThumbnailSizes().contains(size)) {
+            throw new BadRequestAlertException("Unsupported thumbnail size " + size, ENTITY_NAME, "sizeinvalid");
+        }
+    }
+
+    /**
+     * Wrap the file of a picture into a response streaming it. The strong entity tag lets Spring MVC answer
+     * conditional requests with {@code 304 (Not Modified)} and range requests with {@code 206 (Partial Content)}.
+     *
+     * @param file the file, or empty for a {@code 404 (Not Found)} response.
+     * @param cacheControl the {@code Cache-Control} header of the response.
+     * @return the response.
+     */
+    static ResponseEntity<Resource> toResponse(Optional<PictureFileDTO> file, String cacheControl) {
+        return file
+            .map(result -> ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(result.getContentType()))
+                .eTag(result.getETag())
+                .header(HttpHeaders.CACHE_CONTROL, cacheControl)
+                .body((Resource) new FileSystemResource(result.getPath())))
+            .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
@@ -0,0 +1,57 @@
+package de.offersapp.aldiapi.web.rest;
+
+import de.offersapp.aldiapi.security.AuthoritiesConstants;
+import de.offersapp.aldiapi.service.SearchReindexService;
+import de.offersapp.aldiapi.service.dto.ReindexStatusDTO;
+import de.offersapp.aldiapi.web.rest.errors.BadRequestAlertException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST controller for administrating the search indices.
+ */
+@RestController
+@RequestMapping("/api/admin")
+@PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+public class SearchIndexResource {
+
+    private final Logger log = LoggerFactory.getLogger(SearchIndexResource.class);
+
+    private static final String ENTITY_NAME = "aldiApiSearchIndex";
+
+    private final SearchReindexService searchReindexService;
+
+    public SearchIndexResource(SearchReindexService searchReindexService) {
+        this.searchReindexService = searchReindexService;
+    }
+
+    /**
+     * {@code POST  /admin/search-index/_reindex} : rebuild the search indices from the database in the background.
+     *
+     * @return the {@link ResponseEntity} with status {@code 202 (Accepted)} and with body the status of the reindex,
+     * or with status {@code 400 (Bad Request)} if a reindex is already running.
+     */
+    @PostMapping("/search-index/_reindex")
+    public ResponseEntity<ReindexStatusDTO> startReindex() {
+        log.debug("REST request to reindex the search indices");
+        if (!searchReindexService.startReindex()) {
+            throw new BadRequestAlertException("A reindex is already running", ENTITY_NAME, "reindexrunning");
+        }
+        return ResponseEntity.accepted().body(searchReindexService.getStatus());
+    }
+
+    /**
+     * {@code GET  /admin/search-index/_reindex} : get the status of the running or last reindex.
+     *
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the status of the reindex.
+     */
+    @GetMapping("/search-index/_reindex")
+    public ResponseEntity<ReindexStatusDTO> getReindexStatus() {
+        log.debug("REST request to get the reindex status");
+        return ResponseEntity.ok().body(searchReindexService.getStatus());
+    }
+}
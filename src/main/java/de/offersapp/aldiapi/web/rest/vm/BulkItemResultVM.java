@@ -0,0 +1,81 @@
+package de.offersapp.aldiapi.web.rest.vm;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import de.offersapp.aldiapi.web.rest.errors.FieldErrorVM;
+import org.springframework.http.HttpStatus;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * View Model for the result of one item of a bulk request.
+ * <p>
+ * The status is the one the item would have got as a single request: {@code 201} when created, {@code 200} when
+ * updated, {@code 400} when invalid and {@code 404} when the entity to update does not exist.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkItemResultVM implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int index;
+
+    private final int status;
+
+    private final Long id;
+
+    private final List<FieldErrorVM> fieldErrors;
+
+    private BulkItemResultVM(int index, HttpStatus status, Long id, List<FieldErrorVM> fieldErrors) {
+        this.index = index;
+        this.status = status.value();
+        this.id = id;
+        this.fieldErrors = fieldErrors;
+    }
+
+    public static BulkItemResultVM created(int index, Long id) {
+        return new BulkItemResultVM(index, HttpStatus.CREATED, id, null);
+    }
+
+    public static BulkItemResultVM updated(int index, Long id) {
+        return new BulkItemResultVM(index, HttpStatus.OK, id, null);
+    }
+
+    public static BulkItemResultVM invalid(int index, Long id, List<FieldErrorVM> fieldErrors) {
+        return new BulkItemResultVM(index, HttpStatus.BAD_REQUEST, id, fieldErrors);
+    }
+
+    public static BulkItemResultVM notFound(int index, Long id) {
+        return new BulkItemResultVM(index, HttpStatus.NOT_FOUND, id, null);
+    }
+
+    /**
+     * @return the position of the item in the request.
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public List<FieldErrorVM> getFieldErrors() {
+        return fieldErrors;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "BulkItemResultVM{" +
+            "index=" + index +
+            ", status=" + status +
+            ", id=" + id +
+            ", fieldErrors=" + fieldErrors +
+            "}";
+    }
+}
@@ -0,0 +1,76 @@
+package de.offersapp.aldiapi.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for the {@link ReadOnlyRoutingDataSource}.
+ */
+public class ReadOnlyRoutingDataSourceUnitTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private DataSource primary;
+
+    private DataSource replica;
+
+    private Connection primaryConnection;
+
+    private Connection replicaConnection;
+
+    private ReadOnlyRoutingDataSource dataSource;
+
+    @BeforeEach
+    public void init() throws SQLException {
+        primary = mock(DataSource.class);
+        replica = mock(DataSource.class);
+        primaryConnection = mock(Connection.class);
+        replicaConnection = mock(Connection.class);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+        dataSource = new ReadOnlyRoutingDataSource(primary, replica, clock::get);
+    }
+
+    @AfterEach
+    public void clearReadOnly() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    public void testWritesUsePrimary() throws SQLException {
+        assertThat(dataSource.getConnection()).isSameAs(primaryConnection);
+        verifyNoInteractions(replica);
+    }
+
+    @Test
+    public void testReadOnlyTransactionsUseReplica() throws SQLException {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(dataSource.getConnection()).isSameAs(replicaConnection);
+    }
+
+    @Test
+    public void testFallbackToPrimaryWhileReplicaIsUnavailable() throws SQLException {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        when(replica.getConnection()).thenThrow(new SQLException("Connection refused"));
+
+        assertThat(dataSource.getConnection()).isSameAs(primaryConnection);
+        assertThat(dataSource.getConnection()).isSameAs(primaryConnection);
+        verify(replica, times(1)).getConnection();
+
+        clock.addAndGet(ReadOnlyRoutingDataSource.REPLICA_RETRY_INTERVAL);
+        reset(replica);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+        assertThat(dataSource.getConnection()).isSameAs(replicaConnection);
+    }
+}
@@ -0,0 +1,39 @@
+package de.offersapp.aldiapi.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hibernate {@link StatementInspector} recording the SQL statements prepared by the current thread, between
+ * {@link #start()} and {@link #stop()}.
+ */
+public class RecordingStatementInspector implements StatementInspector {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final ThreadLocal<List<String>> STATEMENTS = new ThreadLocal<>();
+
+    public static void start() {
+        STATEMENTS.set(new ArrayList<>());
+    }
+
+    /**
+     * @return the statements prepared since {@link #start()}.
+     */
+    public static List<String> stop() {
+        List<String> statements = STATEMENTS.get();
+        STATEMENTS.remove();
+        return statements == null ? new ArrayList<>() : statements;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        List<String> statements = STATEMENTS.get();
+        if (statements != null) {
+            statements.add(sql);
+        }
+        return sql;
+    }
+}
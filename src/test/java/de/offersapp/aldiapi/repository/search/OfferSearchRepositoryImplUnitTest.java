@@ -0,0 +1,74 @@
+package de.offersapp.aldiapi.repository.search;
+
+import com.google.gson.Gson;
+import de.offersapp.aldiapi.domain.Offer;
+import io.searchbox.client.JestClient;
+import io.searchbox.core.Bulk;
+import io.searchbox.core.BulkResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.mapping.ElasticsearchPersistentEntity;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for the {@link OfferSearchRepositoryImpl}.
+ */
+public class OfferSearchRepositoryImplUnitTest {
+
+    private final JestClient jestClient = mock(JestClient.class);
+
+    private final BulkResult bulkResult = mock(BulkResult.class);
+
+    private OfferSearchRepositoryImpl offerSearchRepository;
+
+    @BeforeEach
+    public void init() throws IOException {
+        ElasticsearchPersistentEntity<?> persistentEntity = mock(ElasticsearchPersistentEntity.class);
+        when(persistentEntity.getIndexName()).thenReturn("offer");
+        when(persistentEntity.getIndexType()).thenReturn("offer");
+        ElasticsearchOperations elasticsearchOperations = mock(ElasticsearchOperations.class);
+        doReturn(persistentEntity).when(elasticsearchOperations).getPersistentEntityFor(Offer.class);
+        when(jestClient.execute(any(Bulk.class))).thenReturn(bulkResult);
+        offerSearchRepository = new OfferSearchRepositoryImpl(jestClient, elasticsearchOperations);
+    }
+
+    @Test
+    public void testDocumentsAreDeletedInOneRequest() throws IOException {
+        when(bulkResult.isSucceeded()).thenReturn(true);
+
+        offerSearchRepository.deleteAllById(Arrays.asList(1L, 2L));
+
+        ArgumentCaptor<Bulk> captor = ArgumentCaptor.forClass(Bulk.class);
+        verify(jestClient).execute(captor.capture());
+        assertThat(captor.getValue().getData(new Gson()))
+            .contains("\"delete\"")
+            .contains("\"_id\":\"1\"")
+            .contains("\"_id\":\"2\"");
+    }
+
+    @Test
+    public void testFailedBulkRequestThrows() {
+        when(bulkResult.isSucceeded()).thenReturn(false);
+        when(bulkResult.getErrorMessage()).thenReturn("index_not_found_exception");
+
+        assertThatThrownBy(() -> offerSearchRepository.deleteAllById(Collections.singletonList(1L)))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("index_not_found_exception");
+    }
+
+    @Test
+    public void testNothingIsSentWithoutIds() {
+        offerSearchRepository.deleteAllById(Collections.emptyList());
+
+        verifyNoInteractions(jestClient);
+    }
+}
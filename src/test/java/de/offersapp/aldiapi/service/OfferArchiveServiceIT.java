@@ -0,0 +1,102 @@
+package de.offersapp.aldiapi.service;
+
+import de.offersapp.aldiapi.AldiApiApp;
+import de.offersapp.aldiapi.domain.Offer;
+import de.offersapp.aldiapi.domain.OfferArchive;
+import de.offersapp.aldiapi.repository.OfferRepository;
+import de.offersapp.aldiapi.repository.search.OfferSearchRepository;
+import de.offersapp.aldiapi.service.dto.OfferCriteria;
+import io.github.jhipster.service.filter.LongFilter;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Integration tests for {@link OfferArchiveService}.
+ */
+@SpringBootTest(classes = AldiApiApp.class)
+@Transactional
+public class OfferArchiveServiceIT {
+
+    private static final LocalDate TODAY = LocalDate.now();
+
+    @Autowired
+    private OfferArchiveService offerArchiveService;
+
+    @Autowired
+    private OfferQueryService offerQueryService;
+
+    @Autowired
+    private OfferRepository offerRepository;
+
+    /**
+     * This repository is mocked in the de.offersapp.aldiapi.repository.search test package.
+     *
+     * @see de.offersapp.aldiapi.repository.search.OfferSearchRepositoryMockConfiguration
+     */
+    @Autowired
+    private OfferSearchRepository mockOfferSearchRepository;
+
+    private Offer createOffer(LocalDate endDate) {
+        return offerRepository.saveAndFlush(new Offer()
+            .advantage(new BigDecimal("0.50"))
+            .amount("1 kg")
+            .startDate(endDate.minusDays(6))
+            .endDate(endDate));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void archiveExpiredOffers() {
+        // More expired offers than the batch size of the test configuration, so that several batches are needed
+        List<Offer> expired = Arrays.asList(
+            createOffer(TODAY.minusDays(30)), createOffer(TODAY.minusDays(20)), createOffer(TODAY.minusDays(8)));
+        Offer recent = createOffer(TODAY.minusDays(1));
+        Offer current = createOffer(TODAY.plusDays(3));
+        reset(mockOfferSearchRepository);
+
+        assertThat(offerArchiveService.archiveExpiredOffers()).isEqualTo(expired.size());
+
+        List<Long> expiredIds = expired.stream().map(Offer::getId).collect(Collectors.toList());
+        expiredIds.forEach(id -> assertThat(offerRepository.existsById(id)).isFalse());
+        ArgumentCaptor<Collection<Long>> deletedIds = ArgumentCaptor.forClass(Collection.class);
+        verify(mockOfferSearchRepository, atLeastOnce()).deleteAllById(deletedIds.capture());
+        assertThat(deletedIds.getAllValues().stream().flatMap(Collection::stream))
+            .containsExactlyInAnyOrderElementsOf(expiredIds);
+        assertThat(offerRepository.existsById(recent.getId())).isTrue();
+        assertThat(offerRepository.existsById(current.getId())).isTrue();
+
+        OfferCriteria criteria = new OfferCriteria();
+        LongFilter id = new LongFilter();
+        id.setIn(expiredIds);
+        criteria.setId(id);
+        Page<OfferArchive> history = offerQueryService.findHistoryByCriteria(criteria, PageRequest.of(0, 10));
+        assertThat(history.getContent()).extracting(OfferArchive::getId).containsExactlyInAnyOrderElementsOf(expiredIds);
+        assertThat(history.getContent()).allSatisfy(archive -> {
+            assertThat(archive.getAmount()).isEqualTo("1 kg");
+            assertThat(archive.getArchivedAt()).isNotNull();
+        });
+    }
+
+    @Test
+    public void archiveWithoutExpiredOffers() {
+        Offer recent = createOffer(TODAY.minusDays(7));
+
+        assertThat(offerArchiveService.archiveExpiredOffers()).isZero();
+        assertThat(offerRepository.existsById(recent.getId())).isTrue();
+    }
+}
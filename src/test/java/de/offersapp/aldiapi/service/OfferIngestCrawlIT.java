@@ -0,0 +1,156 @@
+package de.offersapp.aldiapi.service;
+
+import de.offersapp.aldiapi.AldiApiApp;
+import de.offersapp.aldiapi.domain.Article;
+import de.offersapp.aldiapi.domain.Offer;
+import de.offersapp.aldiapi.repository.ArticleRepository;
+import de.offersapp.aldiapi.repository.OfferRepository;
+import de.offersapp.aldiapi.service.crawler.CrawlResult;
+import de.offersapp.aldiapi.service.dto.IngestResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * Integration tests for the ingestion of a crawl by {@link OfferIngestService}, in one transaction per chunk of
+ * offers. The chunks are committed, so the test is not transactional and deletes its offers afterwards.
+ */
+@SpringBootTest(classes = AldiApiApp.class)
+public class OfferIngestCrawlIT {
+
+    private static final String DESCRIPTION_PREFIX = "Ingest ";
+
+    private static final LocalDate START_DATE = LocalDate.now();
+    private static final LocalDate END_DATE = START_DATE.plusDays(6);
+
+    /**
+     * Matches the chunk size of the ingest service.
+     */
+    private static final int CHUNK_SIZE = 25;
+
+    @Autowired
+    private OfferIngestService offerIngestService;
+
+    @Autowired
+    private OfferRepository offerRepository;
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockBean
+    private OffersParserService offersParserService;
+
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    public void cleanup() {
+        transactionTemplate.executeWithoutResult(status -> {
+            offerRepository.deleteAll(offerRepository.findAll().stream()
+                .filter(offer -> offer.getArticle() != null && offer.getArticle().getDescription().startsWith(DESCRIPTION_PREFIX))
+                .collect(Collectors.toList()));
+            articleRepository.deleteAll(articleRepository.findAll().stream()
+                .filter(article -> article.getDescription().startsWith(DESCRIPTION_PREFIX))
+                .collect(Collectors.toList()));
+        });
+    }
+
+    private static Offer createOffer(String description, BigDecimal advantage) {
+        return new Offer()
+            .advantage(advantage)
+            .amount("1 kg")
+            .startDate(START_DATE)
+            .endDate(END_DATE)
+            .article(new Article()
+                .description(DESCRIPTION_PREFIX + description)
+                .producer("Milsani")
+                .amount("1 kg"));
+    }
+
+    private void crawl(List<Offer> offers) {
+        when(offersParserService.fetchOffers(any())).thenAnswer(invocation -> {
+            Consumer<Offer> offerConsumer = invocation.getArgument(0);
+            offers.forEach(offerConsumer);
+            return new CrawlResult(false);
+        });
+    }
+
+    private List<Offer> findOffers(String description) {
+        return transactionTemplate.execute(status -> offerRepository.findAll().stream()
+            .filter(offer -> offer.getArticle() != null
+                && offer.getArticle().getDescription().equals(DESCRIPTION_PREFIX + description))
+            .collect(Collectors.toList()));
+    }
+
+    @Test
+    public void failedChunkIsNotCounted() {
+        offerIngestService.ingest(Collections.singletonList(createOffer("stored", new BigDecimal("0.50"))));
+
+        // The first chunk is valid, the second one updates the stored offer and fails on its last offer
+        List<Offer> offers = new ArrayList<>();
+        for (int i = 0; i < CHUNK_SIZE; i++) {
+            offers.add(createOffer("new " + i, new BigDecimal("0.10")));
+        }
+        offers.add(createOffer("stored", new BigDecimal("0.70")));
+        offers.add(createOffer("rolled back", new BigDecimal("0.10")));
+        offers.add(createOffer("invalid", null));
+        crawl(offers);
+
+        IngestResult result = offerIngestService.ingestCrawl();
+
+        assertThat(result.getInserted()).isEqualTo(CHUNK_SIZE);
+        assertThat(result.getUpdated()).isZero();
+        assertThat(result.getUnchanged()).isZero();
+        assertThat(result.getFailed()).isEqualTo(3);
+        // A partially ingested crawl does not delete the offers it did not match
+        assertThat(result.getDeleted()).isZero();
+        assertThat(findOffers("new 0")).hasSize(1);
+        assertThat(findOffers("rolled back")).isEmpty();
+        assertThat(findOffers("stored")).hasSize(1);
+        assertThat(findOffers("stored").get(0).getAdvantage()).isEqualByComparingTo("0.50");
+    }
+
+    @Test
+    public void offerOfAFailedChunkIsIngestedAgain() {
+        // The first chunk fails on its last offer, the second one repeats an offer of the first one
+        List<Offer> offers = new ArrayList<>();
+        for (int i = 0; i < CHUNK_SIZE - 1; i++) {
+            offers.add(createOffer("new " + i, new BigDecimal("0.10")));
+        }
+        offers.add(createOffer("invalid", null));
+        offers.add(createOffer("new 0", new BigDecimal("0.10")));
+        crawl(offers);
+
+        IngestResult result = offerIngestService.ingestCrawl();
+
+        // The offer is not taken for a duplicate of the rolled back one
+        assertThat(result.getInserted()).isEqualTo(1);
+        assertThat(result.getFailed()).isEqualTo(CHUNK_SIZE);
+        assertThat(findOffers("new 0")).hasSize(1);
+        assertThat(findOffers("new 1")).isEmpty();
+    }
+}
@@ -0,0 +1,137 @@
+package de.offersapp.aldiapi.service;
+
+import de.offersapp.aldiapi.AldiApiApp;
+import de.offersapp.aldiapi.domain.Article;
+import de.offersapp.aldiapi.domain.Offer;
+import de.offersapp.aldiapi.repository.ArticleRepository;
+import de.offersapp.aldiapi.repository.OfferRepository;
+import de.offersapp.aldiapi.repository.search.OfferSearchRepository;
+import de.offersapp.aldiapi.service.dto.IngestResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Integration tests for {@link OfferIngestService}. The ingest commits its own transactions, so the test is not
+ * transactional and deletes its offers afterwards.
+ */
+@SpringBootTest(classes = AldiApiApp.class)
+public class OfferIngestServiceIT {
+
+    private static final List<String> DESCRIPTIONS = Arrays.asList("Bananen", "Vollmilch");
+
+    private static final LocalDate START_DATE = LocalDate.now();
+    private static final LocalDate END_DATE = START_DATE.plusDays(6);
+
+    @Autowired
+    private OfferIngestService offerIngestService;
+
+    @Autowired
+    private OfferRepository offerRepository;
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * This repository is mocked in the de.offersapp.aldiapi.repository.search test package.
+     *
+     * @see de.offersapp.aldiapi.repository.search.OfferSearchRepositoryMockConfiguration
+     */
+    @Autowired
+    private OfferSearchRepository mockOfferSearchRepository;
+
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    public void cleanup() {
+        transactionTemplate.executeWithoutResult(status -> {
+            offerRepository.deleteAll(offerRepository.findAll().stream()
+                .filter(offer -> offer.getArticle() != null && DESCRIPTIONS.contains(offer.getArticle().getDescription()))
+                .collect(Collectors.toList()));
+            articleRepository.deleteAll(articleRepository.findAll().stream()
+                .filter(article -> DESCRIPTIONS.contains(article.getDescription()))
+                .collect(Collectors.toList()));
+        });
+    }
+
+    private static List<Offer> crawl(BigDecimal bananaAdvantage) {
+        return Arrays.asList(
+            createOffer("Bananen", "Chiquita", bananaAdvantage),
+            createOffer("Vollmilch", "Milsani", new BigDecimal("0.20")));
+    }
+
+    private static Offer createOffer(String description, String producer, BigDecimal advantage) {
+        return new Offer()
+            .advantage(advantage)
+            .amount("1 kg")
+            .startDate(START_DATE)
+            .endDate(END_DATE)
+            .article(new Article()
+                .description(description)
+                .producer(producer)
+                .amount("1 kg"));
+    }
+
+    @Test
+    public void ingestNewOffers() {
+        int databaseSizeBeforeIngest = offerRepository.findAll().size();
+
+        IngestResult result = offerIngestService.ingest(crawl(new BigDecimal("0.5")));
+
+        assertThat(result.getInserted()).isEqualTo(2);
+        assertThat(offerRepository.findAll()).hasSize(databaseSizeBeforeIngest + 2);
+        verify(mockOfferSearchRepository, times(2)).saveAll(anyIterable());
+    }
+
+    @Test
+    public void reingestUnchangedOffersDoesNotWrite() {
+        offerIngestService.ingest(crawl(new BigDecimal("0.5")));
+        reset(mockOfferSearchRepository);
+
+        IngestResult result = offerIngestService.ingest(crawl(new BigDecimal("0.50")));
+
+        assertThat(result.getInserted()).isZero();
+        assertThat(result.getUpdated()).isZero();
+        assertThat(result.getDeleted()).isZero();
+        assertThat(result.getUnchanged()).isEqualTo(2);
+        verify(mockOfferSearchRepository, never()).saveAll(anyIterable());
+        verify(mockOfferSearchRepository, never()).deleteAllById(anyCollection());
+    }
+
+    @Test
+    public void ingestChangedAndRemovedOffers() {
+        offerIngestService.ingest(crawl(new BigDecimal("0.5")));
+
+        IngestResult result = offerIngestService.ingest(
+            Collections.singletonList(createOffer("Bananen", "Chiquita", new BigDecimal("0.7"))));
+
+        assertThat(result.getUpdated()).isEqualTo(1);
+        assertThat(result.getDeleted()).isEqualTo(1);
+        assertThat(offerRepository.findAll())
+            .extracting(offer -> offer.getArticle().getDescription())
+            .contains("Bananen")
+            .doesNotContain("Vollmilch");
+    }
+}
@@ -1,6 +1,7 @@
 package de.offersapp.aldiapi.service;
 
 import de.offersapp.aldiapi.AldiApiApp;
+import de.offersapp.aldiapi.service.crawler.CrawlResult;
 import de.offersapp.aldiapi.service.impl.OffersParserServiceImpl;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -17,9 +18,17 @@ public class OffersParserServiceTest {
 
     private final Logger log = LoggerFactory.getLogger(OffersParserServiceImpl.class);
 
+    /**
+     * The test configuration replays src/test/resources/crawler/aldi-sued.jsonl.gz, which holds the offers index
+     * and its four offers pages: the crawl only succeeds if every page is served from the archive.
+     */
     @Test
     public void fetchOffersTest(){
-        Assertions.assertNull(offersParserService.fetchOffers());
+        CrawlResult result = offersParserService.fetchOffers(offer -> { });
+
+        Assertions.assertEquals(4, result.getPages());
+        Assertions.assertEquals(0, result.getFailedPages());
+        Assertions.assertTrue(result.isComplete());
     }
 
 }
@@ -0,0 +1,54 @@
+package de.offersapp.aldiapi.service;
+
+import de.offersapp.aldiapi.AldiApiApp;
+import de.offersapp.aldiapi.domain.Picture;
+import de.offersapp.aldiapi.repository.PictureRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for {@link PictureService}.
+ */
+@SpringBootTest(classes = AldiApiApp.class)
+@Transactional
+public class PictureServiceIT {
+
+    private static final byte[] BANANA = "banana picture".getBytes(StandardCharsets.UTF_8);
+
+    private static final byte[] MILK = "milk picture".getBytes(StandardCharsets.UTF_8);
+
+    @Autowired
+    private PictureService pictureService;
+
+    @Autowired
+    private PictureRepository pictureRepository;
+
+    @Test
+    public void storeIdenticalPicturesOnce() {
+        int databaseSizeBeforeStore = pictureRepository.findAll().size();
+
+        Picture picture = pictureService.store(BANANA, MediaType.IMAGE_JPEG_VALUE);
+        Picture samePicture = pictureService.store(BANANA.clone(), MediaType.IMAGE_JPEG_VALUE);
+        Picture otherPicture = pictureService.store(MILK, MediaType.IMAGE_PNG_VALUE);
+
+        assertThat(samePicture.getId()).isEqualTo(picture.getId());
+        assertThat(otherPicture.getId()).isNotEqualTo(picture.getId());
+        assertThat(pictureRepository.findAll()).hasSize(databaseSizeBeforeStore + 2);
+    }
+
+    @Test
+    public void storeComputesSha256Checksum() {
+        Picture picture = pictureService.store(BANANA, MediaType.IMAGE_JPEG_VALUE);
+
+        assertThat(picture.getChecksum()).isEqualTo("09c87977b7e885a68259f696d6c5bf2b14b551fe38cdd054ba708d6b3ee7415f");
+        assertThat(picture.getSize()).isEqualTo((long) BANANA.length);
+        assertThat(pictureService.findOneByChecksum(picture.getChecksum())).contains(picture);
+    }
+}
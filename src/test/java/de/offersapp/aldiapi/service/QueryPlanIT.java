@@ -0,0 +1,114 @@
+package de.offersapp.aldiapi.service;
+
+import de.offersapp.aldiapi.AldiApiApp;
+import de.offersapp.aldiapi.config.RecordingStatementInspector;
+import de.offersapp.aldiapi.domain.enumeration.ArticleCategory;
+import de.offersapp.aldiapi.service.dto.ArticleCriteria;
+import de.offersapp.aldiapi.service.dto.OfferCriteria;
+import io.github.jhipster.service.filter.BigDecimalFilter;
+import io.github.jhipster.service.filter.LocalDateFilter;
+import io.github.jhipster.service.filter.StringFilter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests checking that the SQL generated for the {@link OfferQueryService} and
+ * {@link ArticleQueryService} filters is executed with the indexes of the database.
+ */
+@SpringBootTest(classes = AldiApiApp.class)
+@Transactional
+public class QueryPlanIT {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 10, 17);
+
+    @Autowired
+    private OfferQueryService offerQueryService;
+
+    @Autowired
+    private ArticleQueryService articleQueryService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void activeOffersUseDateIndex() {
+        OfferCriteria criteria = new OfferCriteria();
+        LocalDateFilter startDate = new LocalDateFilter();
+        startDate.setLessThanOrEqual(DAY);
+        criteria.setStartDate(startDate);
+        LocalDateFilter endDate = new LocalDateFilter();
+        endDate.setGreaterThanOrEqual(DAY);
+        criteria.setEndDate(endDate);
+
+        RecordingStatementInspector.start();
+        offerQueryService.findByCriteria(criteria);
+
+        assertThat(explain(RecordingStatementInspector.stop(), DAY, DAY))
+            .containsIgnoringCase("idx_offer_end_date_start_date");
+    }
+
+    @Test
+    public void articlesByDescriptionAndProducerUseIndex() {
+        ArticleCriteria criteria = new ArticleCriteria();
+        StringFilter description = new StringFilter();
+        description.setEquals("Bananen");
+        criteria.setDescription(description);
+        StringFilter producer = new StringFilter();
+        producer.setEquals("Chiquita");
+        criteria.setProducer(producer);
+
+        RecordingStatementInspector.start();
+        articleQueryService.findByCriteria(criteria);
+
+        assertThat(explain(RecordingStatementInspector.stop(), "Bananen", "Chiquita"))
+            .containsIgnoringCase("idx_article_description_producer");
+    }
+
+    @Test
+    public void articlesByCategoryUseIndex() {
+        ArticleCriteria criteria = new ArticleCriteria();
+        ArticleCriteria.ArticleCategoryFilter category = new ArticleCriteria.ArticleCategoryFilter();
+        category.setEquals(ArticleCategory.FRESH);
+        criteria.setCategory(category);
+
+        RecordingStatementInspector.start();
+        articleQueryService.findByCriteria(criteria);
+
+        assertThat(explain(RecordingStatementInspector.stop(), ArticleCategory.FRESH.name()))
+            .containsIgnoringCase("idx_article_category");
+    }
+
+    @Test
+    public void articlesByPriceUseIndex() {
+        ArticleCriteria criteria = new ArticleCriteria();
+        BigDecimalFilter price = new BigDecimalFilter();
+        price.setLessThan(BigDecimal.TEN);
+        criteria.setPrice(price);
+
+        RecordingStatementInspector.start();
+        articleQueryService.findByCriteria(criteria);
+
+        assertThat(explain(RecordingStatementInspector.stop(), BigDecimal.TEN))
+            .containsIgnoringCase("idx_article_price");
+    }
+
+    /**
+     * Explain the last select statement, binding its parameters in order.
+     */
+    private String explain(List<String> statements, Object... parameters) {
+        String select = statements.stream()
+            .filter(sql -> sql.toLowerCase().startsWith("select"))
+            .reduce((first, second) -> second)
+            .orElseThrow(() -> new AssertionError("No select statement in " + statements));
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + select, String.class, parameters));
+    }
+}
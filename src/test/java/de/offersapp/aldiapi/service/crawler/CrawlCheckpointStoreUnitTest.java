@@ -0,0 +1,83 @@
+package de.offersapp.aldiapi.service.crawler;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.offersapp.aldiapi.config.ApplicationProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the {@link CrawlCheckpointStore}.
+ */
+public class CrawlCheckpointStoreUnitTest {
+
+    private static final String MONDAY = "/de/angebote/aktion-montag.html";
+
+    private static final String THURSDAY = "/de/angebote/aktion-donnerstag.html";
+
+    private static final String SATURDAY = "/de/angebote/aktion-samstag.html";
+
+    @TempDir
+    Path tempDir;
+
+    private CrawlCheckpointStore crawlCheckpointStore;
+
+    @BeforeEach
+    public void init() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getCrawler().setCheckpointFile(tempDir.resolve("checkpoint.json").toString());
+        crawlCheckpointStore = new CrawlCheckpointStore(new ObjectMapper().findAndRegisterModules(), applicationProperties);
+    }
+
+    @Test
+    public void testResumeInterruptedCrawl() {
+        CrawlCheckpoint checkpoint = crawlCheckpointStore.start(Arrays.asList(MONDAY, THURSDAY, SATURDAY));
+        crawlCheckpointStore.markDone(checkpoint, MONDAY);
+        crawlCheckpointStore.markFailed(checkpoint, THURSDAY, new IOException("Read timed out"));
+
+        CrawlCheckpoint loaded = crawlCheckpointStore.load().get();
+        assertThat(loaded.getPages()).containsOnlyKeys(MONDAY, THURSDAY, SATURDAY);
+        assertThat(loaded.getPages().get(MONDAY).getStatus()).isEqualTo(CrawlCheckpoint.PageStatus.DONE);
+        assertThat(loaded.getPages().get(THURSDAY).getStatus()).isEqualTo(CrawlCheckpoint.PageStatus.FAILED);
+        assertThat(loaded.getPages().get(THURSDAY).getError()).contains("Read timed out");
+        assertThat(loaded.getPages().get(SATURDAY).getStatus()).isEqualTo(CrawlCheckpoint.PageStatus.PENDING);
+        assertThat(loaded.getStartedAt()).isEqualTo(checkpoint.getStartedAt());
+    }
+
+    @Test
+    public void testResetFailedPages() {
+        CrawlCheckpoint checkpoint = crawlCheckpointStore.start(Arrays.asList(MONDAY, THURSDAY));
+        crawlCheckpointStore.markDone(checkpoint, MONDAY);
+        crawlCheckpointStore.markFailed(checkpoint, THURSDAY, new IOException("HTTP error fetching URL"));
+        assertThat(checkpoint.hasPages(CrawlCheckpoint.PageStatus.PENDING)).isFalse();
+
+        crawlCheckpointStore.resetFailed(checkpoint);
+
+        CrawlCheckpoint loaded = crawlCheckpointStore.load().get();
+        assertThat(loaded.getPages().get(MONDAY).getStatus()).isEqualTo(CrawlCheckpoint.PageStatus.DONE);
+        assertThat(loaded.getPages().get(THURSDAY).getStatus()).isEqualTo(CrawlCheckpoint.PageStatus.PENDING);
+        assertThat(loaded.getPages().get(THURSDAY).getAttempts()).isEqualTo(1);
+    }
+
+    @Test
+    public void testStaleCheckpointIsIgnored() {
+        CrawlCheckpoint checkpoint = crawlCheckpointStore.start(Arrays.asList(MONDAY, THURSDAY));
+        checkpoint.setStartedAt(Instant.now().minus(Duration.ofDays(2)));
+        crawlCheckpointStore.markDone(checkpoint, MONDAY);
+
+        assertThat(crawlCheckpointStore.load()).isEmpty();
+    }
+
+    @Test
+    public void testNoCheckpoint() {
+        assertThat(crawlCheckpointStore.load()).isEmpty();
+    }
+}
@@ -0,0 +1,59 @@
+package de.offersapp.aldiapi.service.crawler;
+
+import de.offersapp.aldiapi.config.ApplicationProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the {@link HostRateLimiter}.
+ */
+public class HostRateLimiterUnitTest {
+
+    private static final String URL = "https://www.aldi-sued.de/de/angebote.html";
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private HostRateLimiter hostRateLimiter;
+
+    @BeforeEach
+    public void init() {
+        ApplicationProperties.Crawler.RateLimit rateLimit = new ApplicationProperties.Crawler.RateLimit();
+        rateLimit.setRequestsPerSecond(1.0);
+        rateLimit.setBurst(2);
+        hostRateLimiter = new HostRateLimiter(rateLimit, clock::get);
+    }
+
+    @Test
+    public void testBurstThenSteadyRate() {
+        assertThat(hostRateLimiter.reserve(URL)).isZero();
+        assertThat(hostRateLimiter.reserve(URL)).isZero();
+        assertThat(hostRateLimiter.reserve(URL)).isEqualTo(SECOND);
+        assertThat(hostRateLimiter.reserve(URL)).isEqualTo(2 * SECOND);
+
+        clock.addAndGet(10 * SECOND);
+        assertThat(hostRateLimiter.reserve(URL)).isZero();
+    }
+
+    @Test
+    public void testHostsAreLimitedSeparately() {
+        hostRateLimiter.reserve(URL);
+        hostRateLimiter.reserve(URL);
+
+        assertThat(hostRateLimiter.reserve("https://www.aldi-nord.de/angebote.html")).isZero();
+    }
+
+    @Test
+    public void testPauseDelaysAndSpacesRequests() {
+        hostRateLimiter.pause(URL, 5000);
+
+        assertThat(hostRateLimiter.reserve(URL)).isEqualTo(5 * SECOND);
+        assertThat(hostRateLimiter.reserve(URL)).isEqualTo(6 * SECOND);
+    }
+}
@@ -0,0 +1,62 @@
+package de.offersapp.aldiapi.service.crawler;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.offersapp.aldiapi.config.ApplicationProperties;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.FileNotFoundException;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test class for the {@link PageArchive}.
+ */
+public class PageArchiveUnitTest {
+
+    private static final String URL = "https://www.aldi-sued.de/de/angebote.html";
+
+    @TempDir
+    Path tempDir;
+
+    private PageArchive createArchive(ApplicationProperties.Crawler.Archive.Mode mode) {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getCrawler().getArchive().setMode(mode);
+        applicationProperties.getCrawler().getArchive().setPath(tempDir.resolve("archive.jsonl.gz").toString());
+        return new PageArchive(new ObjectMapper(), applicationProperties);
+    }
+
+    private static ArchivedPage createPage(String body) {
+        ArchivedPage page = new ArchivedPage();
+        page.setUrl(URL);
+        page.setStatus(200);
+        page.getHeaders().put("Content-Type", "text/html;charset=UTF-8");
+        page.setBody(body);
+        return page;
+    }
+
+    @Test
+    public void testReplayRecordedPages() throws Exception {
+        PageArchive recorder = createArchive(ApplicationProperties.Crawler.Archive.Mode.RECORD);
+        assertThat(recorder.isRecording()).isTrue();
+        recorder.record(createPage("<html>first crawl</html>"));
+        recorder.record(createPage("<html>second crawl</html>"));
+
+        PageArchive replayer = createArchive(ApplicationProperties.Crawler.Archive.Mode.REPLAY);
+        assertThat(replayer.isReplaying()).isTrue();
+        ArchivedPage page = replayer.replay(URL);
+        assertThat(page.getBody()).isEqualTo("<html>second crawl</html>");
+        assertThat(page.getHeaders()).containsEntry("Content-Type", "text/html;charset=UTF-8");
+    }
+
+    @Test
+    public void testReplayMissingPage() {
+        createArchive(ApplicationProperties.Crawler.Archive.Mode.RECORD).record(createPage("<html></html>"));
+
+        PageArchive replayer = createArchive(ApplicationProperties.Crawler.Archive.Mode.REPLAY);
+        assertThatThrownBy(() -> replayer.replay("https://www.aldi-sued.de/de/unknown.html"))
+            .isInstanceOf(FileNotFoundException.class);
+    }
+}
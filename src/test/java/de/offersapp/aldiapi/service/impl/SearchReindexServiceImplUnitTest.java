@@ -0,0 +1,195 @@
+package de.offersapp.aldiapi.service.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import de.offersapp.aldiapi.config.ApplicationProperties;
+import de.offersapp.aldiapi.domain.Article;
+import de.offersapp.aldiapi.domain.Offer;
+import de.offersapp.aldiapi.domain.SearchIndexRelayLock;
+import de.offersapp.aldiapi.repository.SearchIndexRelayLockRepository;
+import de.offersapp.aldiapi.service.dto.ReindexStatusDTO;
+import io.searchbox.action.Action;
+import io.searchbox.client.JestClient;
+import io.searchbox.client.JestResult;
+import io.searchbox.indices.aliases.GetAliases;
+import io.searchbox.indices.aliases.ModifyAliases;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.mapping.ElasticsearchPersistentEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for the {@link SearchReindexServiceImpl}.
+ */
+public class SearchReindexServiceImplUnitTest {
+
+    private static final String OLD_OFFER_INDEX = "offer_20261001000000";
+
+    private final EntityManager entityManager = mock(EntityManager.class);
+
+    private final ElasticsearchOperations elasticsearchOperations = mock(ElasticsearchOperations.class);
+
+    private final JestClient jestClient = mock(JestClient.class);
+
+    private final SearchIndexRelayLockRepository searchIndexRelayLockRepository = mock(SearchIndexRelayLockRepository.class);
+
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+
+    private final TransactionStatus relayLockTransaction = new SimpleTransactionStatus();
+
+    private SearchReindexServiceImpl searchReindexService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void init() throws IOException {
+        TypedQuery<Object[]> rangeQuery = mock(TypedQuery.class);
+        when(rangeQuery.getSingleResult()).thenReturn(new Object[]{null, null});
+        when(entityManager.createQuery(anyString(), eq(Object[].class))).thenReturn(rangeQuery);
+
+        doReturn(persistentEntity("article")).when(elasticsearchOperations).getPersistentEntityFor(Article.class);
+        doReturn(persistentEntity("offer")).when(elasticsearchOperations).getPersistentEntityFor(Offer.class);
+
+        // The article index was created by the search repository, the offer index by an earlier reindex
+        List<String> currentIndices = Arrays.asList("article", OLD_OFFER_INDEX);
+        int[] getAliases = {0};
+        when(jestClient.execute(any())).thenAnswer(invocation -> {
+            JestResult result = mock(JestResult.class);
+            when(result.isSucceeded()).thenReturn(true);
+            if (invocation.getArgument(0) instanceof GetAliases) {
+                JsonObject aliases = new JsonObject();
+                aliases.add(currentIndices.get(getAliases[0]++), new JsonObject());
+                when(result.getJsonObject()).thenReturn(aliases);
+            }
+            return result;
+        });
+
+        when(searchIndexRelayLockRepository.lock(SearchIndexRelayLock.ID)).thenReturn(Optional.of(new SearchIndexRelayLock()));
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> {
+            TransactionDefinition definition = invocation.getArgument(0);
+            return definition.getPropagationBehavior() == TransactionDefinition.PROPAGATION_REQUIRED
+                ? relayLockTransaction : new SimpleTransactionStatus();
+        });
+
+        searchReindexService = new SearchReindexServiceImpl(entityManager, elasticsearchOperations, jestClient,
+            searchIndexRelayLockRepository, Runnable::run, Runnable::run, new ApplicationProperties(), transactionManager);
+    }
+
+    private static ElasticsearchPersistentEntity<?> persistentEntity(String indexName) {
+        ElasticsearchPersistentEntity<?> persistentEntity = mock(ElasticsearchPersistentEntity.class);
+        when(persistentEntity.getIndexName()).thenReturn(indexName);
+        when(persistentEntity.getIndexType()).thenReturn(indexName);
+        return persistentEntity;
+    }
+
+    private static JsonNode actions(Action<?> action) throws IOException {
+        return new ObjectMapper().readTree(action.getData(new Gson())).get("actions");
+    }
+
+    @Test
+    public void testPartitionsCoverAllIds() {
+        List<long[]> partitions = SearchReindexServiceImpl.partitions(1000, 1999, 4);
+
+        assertThat(partitions).containsExactly(
+            new long[]{1000, 1250}, new long[]{1250, 1500}, new long[]{1500, 1750}, new long[]{1750, 2000});
+    }
+
+    @Test
+    public void testUnevenPartitions() {
+        List<long[]> partitions = SearchReindexServiceImpl.partitions(1, 10, 4);
+
+        assertThat(partitions).containsExactly(
+            new long[]{1, 4}, new long[]{4, 7}, new long[]{7, 10}, new long[]{10, 11});
+    }
+
+    @Test
+    public void testFewerIdsThanPartitions() {
+        assertThat(SearchReindexServiceImpl.partitions(5, 6, 4)).containsExactly(new long[]{5, 6}, new long[]{6, 7});
+        assertThat(SearchReindexServiceImpl.partitions(5, 5, 4)).containsExactly(new long[]{5, 6});
+    }
+
+    @Test
+    public void testSwapMovesTheAlias() throws IOException {
+        JsonNode actions = actions(SearchReindexServiceImpl.swapAliasAction("offer", "offer_20261017000000",
+            Collections.singletonList(OLD_OFFER_INDEX)));
+
+        assertThat(actions).hasSize(2);
+        assertThat(actions.get(0).at("/add/index").asText()).isEqualTo("offer_20261017000000");
+        assertThat(actions.get(0).at("/add/alias").asText()).isEqualTo("offer");
+        assertThat(actions.get(1).at("/remove/index").asText()).isEqualTo(OLD_OFFER_INDEX);
+        assertThat(actions.get(1).at("/remove/alias").asText()).isEqualTo("offer");
+    }
+
+    @Test
+    public void testFirstSwapReplacesTheIndexInTheSameRequest() throws IOException {
+        JsonNode actions = actions(SearchReindexServiceImpl.swapAliasAction("article", "article_20261017000000",
+            Collections.singletonList("article")));
+
+        assertThat(actions).hasSize(2);
+        assertThat(actions.get(0).at("/add/index").asText()).isEqualTo("article_20261017000000");
+        assertThat(actions.get(0).at("/add/alias").asText()).isEqualTo("article");
+        assertThat(actions.get(1).at("/remove_index/index").asText()).isEqualTo("article");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testReindexSwapsTheAliases() throws IOException {
+        assertThat(searchReindexService.startReindex()).isTrue();
+
+        assertThat(searchReindexService.getStatus().getState()).isEqualTo(ReindexStatusDTO.State.SUCCEEDED);
+        ArgumentCaptor<Action<JestResult>> captor = ArgumentCaptor.forClass(Action.class);
+        verify(jestClient, atLeastOnce()).execute(captor.capture());
+        List<Action<JestResult>> swaps = captor.getAllValues().stream()
+            .filter(action -> action instanceof ModifyAliases)
+            .collect(Collectors.toList());
+        assertThat(swaps).hasSize(2);
+        assertThat(actions(swaps.get(0)).get(1).at("/remove_index/index").asText()).isEqualTo("article");
+        assertThat(actions(swaps.get(1)).get(1).at("/remove/index").asText()).isEqualTo(OLD_OFFER_INDEX);
+        // The index of the search repository goes with the swap, the one of the earlier reindex after it
+        verify(elasticsearchOperations, never()).deleteIndex("article");
+        verify(elasticsearchOperations).deleteIndex(OLD_OFFER_INDEX);
+    }
+
+    @Test
+    public void testReindexPausesTheRelayUntilTheAliasesAreSwapped() throws IOException {
+        searchReindexService.startReindex();
+
+        // The changes committed meanwhile stay in the outbox, to be relayed to the new indices
+        InOrder inOrder = inOrder(searchIndexRelayLockRepository, elasticsearchOperations, jestClient, transactionManager);
+        inOrder.verify(searchIndexRelayLockRepository).lock(SearchIndexRelayLock.ID);
+        inOrder.verify(elasticsearchOperations).createIndex(startsWith("article_"), anyString());
+        inOrder.verify(elasticsearchOperations).createIndex(startsWith("offer_"));
+        inOrder.verify(jestClient).execute(isA(ModifyAliases.class));
+        inOrder.verify(transactionManager).commit(relayLockTransaction);
+    }
+
+    @Test
+    public void testFailedReindexKeepsTheAliases() throws IOException {
+        when(searchIndexRelayLockRepository.lock(SearchIndexRelayLock.ID)).thenReturn(Optional.empty());
+
+        searchReindexService.startReindex();
+
+        assertThat(searchReindexService.getStatus().getState()).isEqualTo(ReindexStatusDTO.State.FAILED);
+        verify(jestClient, never()).execute(isA(ModifyAliases.class));
+        verify(transactionManager).rollback(relayLockTransaction);
+    }
+}
@@ -0,0 +1,174 @@
+package de.offersapp.aldiapi.service.search;
+
+import de.offersapp.aldiapi.AldiApiApp;
+import de.offersapp.aldiapi.domain.Article;
+import de.offersapp.aldiapi.domain.SearchIndexOutbox;
+import de.offersapp.aldiapi.domain.SearchIndexRelayLock;
+import de.offersapp.aldiapi.repository.ArticleRepository;
+import de.offersapp.aldiapi.repository.SearchIndexOutboxRepository;
+import de.offersapp.aldiapi.repository.SearchIndexRelayLockRepository;
+import de.offersapp.aldiapi.repository.search.ArticleSearchRepository;
+import de.offersapp.aldiapi.service.ArticleService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.StreamSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Integration tests for the outbox relay of the {@link SearchIndexer}, which the other tests bypass with the
+ * {@code synchronous} mode.
+ */
+@SpringBootTest(classes = AldiApiApp.class, properties = {
+    "application.search-index.synchronous=false",
+    "application.search-index.flush-interval=10ms",
+    "application.search-index.poll-interval=200ms",
+    "application.search-index.retry.max-attempts=2",
+    "application.search-index.retry.initial-backoff=1",
+    "application.search-index.retry.max-backoff=1"
+})
+public class SearchIndexerIT {
+
+    private static final long TIMEOUT_MILLIS = 5000;
+
+    @Autowired
+    private ArticleService articleService;
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Autowired
+    private SearchIndexOutboxRepository searchIndexOutboxRepository;
+
+    @Autowired
+    private SearchIndexRelayLockRepository searchIndexRelayLockRepository;
+
+    /**
+     * This repository is mocked in the de.offersapp.aldiapi.repository.search test package.
+     *
+     * @see de.offersapp.aldiapi.repository.search.ArticleSearchRepositoryMockConfiguration
+     */
+    @Autowired
+    private ArticleSearchRepository mockArticleSearchRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    private final List<Long> articleIds = new ArrayList<>();
+
+    @BeforeEach
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    public void cleanup() throws InterruptedException {
+        transactionTemplate.executeWithoutResult(status -> articleIds.forEach(articleRepository::deleteById));
+        awaitEmptyOutbox();
+    }
+
+    private Article saveArticle() {
+        return saveArticle("Vollmilch");
+    }
+
+    private Article saveArticle(String description) {
+        Article article = transactionTemplate.execute(status -> articleService.save(new Article()
+            .description(description)
+            .producer("Milsani")
+            .amount("1 l")));
+        articleIds.add(article.getId());
+        return article;
+    }
+
+    private void awaitEmptyOutbox() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (transactionTemplate.execute(status -> searchIndexOutboxRepository.count()) > 0) {
+            assertThat(System.currentTimeMillis()).as("outbox relayed").isLessThan(deadline);
+            Thread.sleep(50);
+        }
+    }
+
+    @Test
+    public void committedChangesAreRelayed() throws InterruptedException {
+        Article article = saveArticle();
+
+        verify(mockArticleSearchRepository, timeout(TIMEOUT_MILLIS)).saveAll(Collections.singletonList(article));
+        awaitEmptyOutbox();
+    }
+
+    @Test
+    public void rolledBackChangesAreNotRelayed() throws InterruptedException {
+        transactionTemplate.executeWithoutResult(status -> {
+            articleService.save(new Article().description("Bananen").producer("Chiquita").amount("1 kg"));
+            status.setRollbackOnly();
+        });
+
+        assertThat(transactionTemplate.execute(status -> searchIndexOutboxRepository.count())).isZero();
+        verify(mockArticleSearchRepository, after(500).never()).saveAll(anyIterable());
+    }
+
+    @Test
+    public void changesWaitForTheRelayLock() throws InterruptedException {
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread otherInstance = new Thread(() -> transactionTemplate.executeWithoutResult(status -> {
+            assertThat(searchIndexRelayLockRepository.tryLock(SearchIndexRelayLock.ID)).isPresent();
+            locked.countDown();
+            try {
+                release.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        otherInstance.start();
+        assertThat(locked.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)).isTrue();
+        try {
+            Article article = saveArticle();
+
+            verify(mockArticleSearchRepository, after(500).never()).saveAll(anyIterable());
+            assertThat(transactionTemplate.execute(status -> searchIndexOutboxRepository.count())).isEqualTo(1);
+
+            release.countDown();
+            otherInstance.join();
+            verify(mockArticleSearchRepository, timeout(TIMEOUT_MILLIS)).saveAll(Collections.singletonList(article));
+            awaitEmptyOutbox();
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void rejectedChangeIsLeftAside() throws InterruptedException {
+        doThrow(new IllegalStateException("Document rejected")).when(mockArticleSearchRepository)
+            .saveAll(argThat((Iterable<Article> articles) -> StreamSupport.stream(articles.spliterator(), false)
+                .anyMatch(article -> "Rejected".equals(article.getDescription()))));
+        Article rejected = saveArticle("Rejected");
+        Article article = saveArticle();
+
+        verify(mockArticleSearchRepository, timeout(TIMEOUT_MILLIS)).saveAll(Collections.singletonList(article));
+        // Only the rejected change is left, with its attempts exhausted
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        List<SearchIndexOutbox> outbox = transactionTemplate.execute(status -> searchIndexOutboxRepository.findAll());
+        while (outbox.size() != 1 || outbox.get(0).getAttempts() < 2) {
+            assertThat(System.currentTimeMillis()).as("rejected change left aside").isLessThan(deadline);
+            Thread.sleep(50);
+            outbox = transactionTemplate.execute(status -> searchIndexOutboxRepository.findAll());
+        }
+        assertThat(outbox.get(0).getDocumentId()).isEqualTo(rejected.getId());
+        transactionTemplate.executeWithoutResult(status -> searchIndexOutboxRepository.deleteAll());
+    }
+}
@@ -0,0 +1,206 @@
+package de.offersapp.aldiapi.service.search;
+
+import de.offersapp.aldiapi.config.ApplicationProperties;
+import de.offersapp.aldiapi.domain.Offer;
+import de.offersapp.aldiapi.domain.SearchIndexOutbox;
+import de.offersapp.aldiapi.domain.SearchIndexRelayLock;
+import de.offersapp.aldiapi.repository.ArticleRepository;
+import de.offersapp.aldiapi.repository.OfferRepository;
+import de.offersapp.aldiapi.repository.SearchIndexOutboxRepository;
+import de.offersapp.aldiapi.repository.SearchIndexRelayLockRepository;
+import de.offersapp.aldiapi.repository.search.ArticleSearchRepository;
+import de.offersapp.aldiapi.repository.search.OfferSearchRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for the {@link SearchIndexer}.
+ */
+public class SearchIndexerUnitTest {
+
+    private final SearchIndexOutboxRepository searchIndexOutboxRepository = mock(SearchIndexOutboxRepository.class);
+
+    private final SearchIndexRelayLockRepository searchIndexRelayLockRepository = mock(SearchIndexRelayLockRepository.class);
+
+    private final OfferRepository offerRepository = mock(OfferRepository.class);
+
+    private final OfferSearchRepository offerSearchRepository = mock(OfferSearchRepository.class);
+
+    private final ApplicationProperties applicationProperties = new ApplicationProperties();
+
+    private SearchIndexer searchIndexer;
+
+    @BeforeEach
+    public void init() {
+        ApplicationProperties.SearchIndex properties = applicationProperties.getSearchIndex();
+        properties.setBatchSize(10);
+        properties.setFlushInterval(Duration.ofMillis(10));
+        properties.setPollInterval(Duration.ofSeconds(10));
+        properties.getRetry().setMaxAttempts(2);
+        properties.getRetry().setInitialBackoff(1);
+        properties.getRetry().setMaxBackoff(1);
+        when(searchIndexOutboxRepository.findOldest(anyInt(), any(Pageable.class))).thenReturn(Collections.emptyList());
+        when(searchIndexRelayLockRepository.tryLock(SearchIndexRelayLock.ID)).thenReturn(Optional.of(new SearchIndexRelayLock()));
+    }
+
+    private void start() {
+        searchIndexer = new SearchIndexer(applicationProperties, runnable -> new Thread(runnable).start(),
+            searchIndexOutboxRepository, searchIndexRelayLockRepository, mock(ArticleRepository.class), mock(ArticleSearchRepository.class),
+            offerRepository, offerSearchRepository, mock(PlatformTransactionManager.class));
+        searchIndexer.start();
+    }
+
+    @AfterEach
+    public void destroy() throws InterruptedException {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        searchIndexer.stop();
+    }
+
+    private static Offer offer(long id) {
+        Offer offer = new Offer();
+        offer.setId(id);
+        return offer;
+    }
+
+    private static SearchIndexOutbox outbox(long id, String documentType, long documentId) {
+        SearchIndexOutbox outbox = new SearchIndexOutbox(documentType, documentId, Instant.now());
+        ReflectionTestUtils.setField(outbox, "id", id);
+        return outbox;
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testChangesAreWrittenToTheOutboxInTheTransaction() {
+        start();
+        TransactionSynchronizationManager.initSynchronization();
+
+        searchIndexer.indexAll(offerSearchRepository, Arrays.asList(offer(1), offer(2)));
+        searchIndexer.delete(offerSearchRepository, 3L);
+
+        ArgumentCaptor<List<SearchIndexOutbox>> captor = ArgumentCaptor.forClass(List.class);
+        verify(searchIndexOutboxRepository, times(2)).saveAll(captor.capture());
+        assertThat(captor.getAllValues().stream().flatMap(List::stream))
+            .extracting(SearchIndexOutbox::getDocumentType, SearchIndexOutbox::getDocumentId)
+            .containsExactly(tuple("Offer", 1L), tuple("Offer", 2L), tuple("Offer", 3L));
+        verifyNoInteractions(offerSearchRepository);
+    }
+
+    @Test
+    public void testCommittedChangesAreRelayedInBatches() {
+        when(searchIndexOutboxRepository.findOldest(anyInt(), any(Pageable.class)))
+            .thenReturn(Arrays.asList(outbox(10, "Offer", 1), outbox(11, "Offer", 2), outbox(12, "Offer", 1)))
+            .thenReturn(Collections.emptyList());
+        when(offerRepository.findAllById(anyIterable())).thenReturn(Collections.singletonList(offer(1)));
+        start();
+        TransactionSynchronizationManager.initSynchronization();
+        searchIndexer.index(offerSearchRepository, offer(1));
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        verify(searchIndexOutboxRepository, timeout(5000)).deleteByIdIn(Arrays.asList(10L, 11L, 12L));
+        verify(offerSearchRepository).saveAll(Collections.singletonList(offer(1)));
+        verify(offerSearchRepository).deleteAllById(Collections.singletonList(2L));
+    }
+
+    @Test
+    public void testFailedChangesStayInTheOutbox() {
+        when(searchIndexOutboxRepository.findOldest(anyInt(), any(Pageable.class)))
+            .thenReturn(Collections.singletonList(outbox(10, "Offer", 1)));
+        when(offerRepository.findAllById(anyIterable())).thenReturn(Collections.singletonList(offer(1)));
+        when(offerSearchRepository.saveAll(anyIterable())).thenThrow(new IllegalStateException("Elasticsearch unavailable"));
+        start();
+
+        searchIndexer.index(offerSearchRepository, offer(1));
+
+        verify(offerSearchRepository, timeout(5000).times(2)).saveAll(anyIterable());
+        verify(searchIndexOutboxRepository, atLeastOnce()).incrementAttemptsByIdIn(Collections.singletonList(10L));
+        verify(searchIndexOutboxRepository, never()).deleteByIdIn(anyCollection());
+    }
+
+    @Test
+    public void testFailedBatchIsSplitAndItsFailingChangeLeftAside() {
+        applicationProperties.getSearchIndex().setBatchSize(2);
+        SearchIndexOutbox poison = outbox(10, "Offer", 1);
+        // The last attempt of the change
+        ReflectionTestUtils.setField(poison, "attempts", 1);
+        AtomicBoolean leftAside = new AtomicBoolean();
+        doAnswer(invocation -> {
+            leftAside.set(true);
+            return 1;
+        }).when(searchIndexOutboxRepository).incrementAttemptsByIdIn(Collections.singletonList(10L));
+        when(searchIndexOutboxRepository.findOldest(anyInt(), any(Pageable.class))).thenAnswer(invocation -> {
+            List<SearchIndexOutbox> changes = leftAside.get()
+                ? Collections.singletonList(outbox(11, "Offer", 2))
+                : Arrays.asList(poison, outbox(11, "Offer", 2));
+            return changes.subList(0, Math.min(changes.size(), invocation.<Pageable>getArgument(1).getPageSize()));
+        });
+        when(offerRepository.findAllById(anyIterable())).thenAnswer(invocation -> StreamSupport
+            .stream(invocation.<Iterable<Long>>getArgument(0).spliterator(), false)
+            .map(SearchIndexerUnitTest::offer)
+            .collect(Collectors.toList()));
+        when(offerSearchRepository.saveAll(anyIterable())).thenAnswer(invocation -> {
+            Iterable<Offer> offers = invocation.getArgument(0);
+            if (StreamSupport.stream(offers.spliterator(), false).anyMatch(offer -> offer.getId() == 1L)) {
+                throw new IllegalStateException("Document rejected");
+            }
+            return offers;
+        });
+        start();
+
+        searchIndexer.index(offerSearchRepository, offer(1));
+
+        verify(searchIndexOutboxRepository, timeout(5000)).deleteByIdIn(Collections.singletonList(11L));
+        verify(searchIndexOutboxRepository).incrementAttemptsByIdIn(Collections.singletonList(10L));
+        verify(searchIndexOutboxRepository, never()).deleteByIdIn(Arrays.asList(10L, 11L));
+        verify(searchIndexOutboxRepository, never()).deleteByIdIn(Collections.singletonList(10L));
+    }
+
+    @Test
+    public void testNothingIsRelayedWhileAnotherInstanceHoldsTheLock() {
+        when(searchIndexRelayLockRepository.tryLock(SearchIndexRelayLock.ID)).thenReturn(Optional.empty());
+        start();
+
+        searchIndexer.index(offerSearchRepository, offer(1));
+
+        verify(searchIndexRelayLockRepository, timeout(5000)).tryLock(SearchIndexRelayLock.ID);
+        verify(searchIndexOutboxRepository, never()).findOldest(anyInt(), any(Pageable.class));
+        verifyNoInteractions(offerSearchRepository);
+    }
+
+    @Test
+    public void testSynchronousModeWritesInTheCallingThread() {
+        applicationProperties.getSearchIndex().setSynchronous(true);
+        start();
+        TransactionSynchronizationManager.initSynchronization();
+
+        searchIndexer.index(offerSearchRepository, offer(1));
+
+        verify(offerSearchRepository).saveAll(Collections.singletonList(offer(1)));
+        verify(searchIndexOutboxRepository, never()).saveAll(anyIterable());
+    }
+}
@@ -6,28 +6,44 @@ import de.offersapp.aldiapi.repository.ArticleRepository;
 import de.offersapp.aldiapi.repository.search.ArticleSearchRepository;
 import de.offersapp.aldiapi.service.ArticleService;
 import de.offersapp.aldiapi.service.dto.ArticleCriteria;
+import de.offersapp.aldiapi.service.dto.Cursor;
 import de.offersapp.aldiapi.service.ArticleQueryService;
-
+import de.offersapp.aldiapi.service.search.SearchQueries;
+
+import org.elasticsearch.index.query.BoolQueryBuilder;
+import org.elasticsearch.index.query.MultiMatchQueryBuilder;
+import org.elasticsearch.index.query.QueryStringQueryBuilder;
+import org.elasticsearch.index.query.RangeQueryBuilder;
+import org.elasticsearch.search.sort.FieldSortBuilder;
+import org.elasticsearch.search.sort.SortOrder;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.elasticsearch.core.query.SearchQuery;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.util.Base64Utils;
 import javax.persistence.EntityManager;
 import java.math.BigDecimal;
+import java.net.URI;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.elasticsearch.index.query.QueryBuilders.queryStringQuery;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasItem;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -59,10 +75,6 @@ public class ArticleResourceIT {
     private static final BigDecimal UPDATED_PRICE = new BigDecimal(2);
     private static final BigDecimal SMALLER_PRICE = new BigDecimal(1 - 1);
 
-    private static final byte[] DEFAULT_PICTURE = TestUtil.createByteArray(1, "0");
-    private static final byte[] UPDATED_PICTURE = TestUtil.createByteArray(1, "1");
-    private static final String DEFAULT_PICTURE_CONTENT_TYPE = "image/jpg";
-    private static final String UPDATED_PICTURE_CONTENT_TYPE = "image/png";
 
     @Autowired
     private ArticleRepository articleRepository;
@@ -101,9 +113,7 @@ public class ArticleResourceIT {
             .producer(DEFAULT_PRODUCER)
             .amount(DEFAULT_AMOUNT)
             .category(DEFAULT_CATEGORY)
-            .price(DEFAULT_PRICE)
-            .picture(DEFAULT_PICTURE)
-            .pictureContentType(DEFAULT_PICTURE_CONTENT_TYPE);
+            .price(DEFAULT_PRICE);
         return article;
     }
     /**
@@ -118,9 +128,7 @@ public class ArticleResourceIT {
             .producer(UPDATED_PRODUCER)
             .amount(UPDATED_AMOUNT)
             .category(UPDATED_CATEGORY)
-            .price(UPDATED_PRICE)
-            .picture(UPDATED_PICTURE)
-            .pictureContentType(UPDATED_PICTURE_CONTENT_TYPE);
+            .price(UPDATED_PRICE);
         return article;
     }
 
@@ -148,11 +156,9 @@ public class ArticleResourceIT {
         assertThat(testArticle.getAmount()).isEqualTo(DEFAULT_AMOUNT);
         assertThat(testArticle.getCategory()).isEqualTo(DEFAULT_CATEGORY);
         assertThat(testArticle.getPrice()).isEqualTo(DEFAULT_PRICE);
-        assertThat(testArticle.getPicture()).isEqualTo(DEFAULT_PICTURE);
-        assertThat(testArticle.getPictureContentType()).isEqualTo(DEFAULT_PICTURE_CONTENT_TYPE);
 
         // Validate the Article in Elasticsearch
-        verify(mockArticleSearchRepository, times(1)).save(testArticle);
+        verify(mockArticleSearchRepository, times(1)).saveAll(Collections.singletonList(testArticle));
     }
 
     @Test
@@ -174,10 +180,58 @@ public class ArticleResourceIT {
         assertThat(articleList).hasSize(databaseSizeBeforeCreate);
 
         // Validate the Article in Elasticsearch
-        verify(mockArticleSearchRepository, times(0)).save(article);
+        verify(mockArticleSearchRepository, never()).saveAll(anyIterable());
     }
 
 
+    @Test
+    @Transactional
+    public void bulkSaveArticles() throws Exception {
+        // Initialize the database
+        articleRepository.saveAndFlush(article);
+        int databaseSizeBeforeBulk = articleRepository.findAll().size();
+
+        Article newArticle = createUpdatedEntity(em);
+        Article invalidArticle = createEntity(em);
+        invalidArticle.setDescription(null);
+        Article updatedArticle = createUpdatedEntity(em);
+        updatedArticle.setId(article.getId());
+        Article unknownArticle = createEntity(em);
+        unknownArticle.setId(Long.MAX_VALUE);
+
+        restArticleMockMvc.perform(post("/api/articles/_bulk")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(Arrays.asList(newArticle, invalidArticle, updatedArticle, unknownArticle))))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].index").value(contains(0, 1, 2, 3)))
+            .andExpect(jsonPath("$.[*].status").value(contains(201, 400, 200, 404)))
+            .andExpect(jsonPath("$.[1].fieldErrors.[0].field").value("description"))
+            .andExpect(jsonPath("$.[2].id").value(article.getId().intValue()));
+
+        // Validate the Articles in the database
+        List<Article> articleList = articleRepository.findAll();
+        assertThat(articleList).hasSize(databaseSizeBeforeBulk + 1);
+
+        // Validate the Articles in Elasticsearch, indexed in a single request
+        verify(mockArticleSearchRepository, times(1)).saveAll(anyIterable());
+    }
+
+    @Test
+    @Transactional
+    public void bulkSaveArticlesWithNullItem() throws Exception {
+        int databaseSizeBeforeBulk = articleRepository.findAll().size();
+
+        restArticleMockMvc.perform(post("/api/articles/_bulk")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(Arrays.asList(createUpdatedEntity(em), null))))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("error.bulkitemnull"));
+
+        // Validate that no Article was saved
+        assertThat(articleRepository.findAll()).hasSize(databaseSizeBeforeBulk);
+        verify(mockArticleSearchRepository, never()).saveAll(anyIterable());
+    }
+
     @Test
     @Transactional
     public void checkDescriptionIsRequired() throws Exception {
@@ -250,9 +304,7 @@ public class ArticleResourceIT {
             .andExpect(jsonPath("$.[*].producer").value(hasItem(DEFAULT_PRODUCER)))
             .andExpect(jsonPath("$.[*].amount").value(hasItem(DEFAULT_AMOUNT)))
             .andExpect(jsonPath("$.[*].category").value(hasItem(DEFAULT_CATEGORY.toString())))
-            .andExpect(jsonPath("$.[*].price").value(hasItem(DEFAULT_PRICE.intValue())))
-            .andExpect(jsonPath("$.[*].pictureContentType").value(hasItem(DEFAULT_PICTURE_CONTENT_TYPE)))
-            .andExpect(jsonPath("$.[*].picture").value(hasItem(Base64Utils.encodeToString(DEFAULT_PICTURE))));
+            .andExpect(jsonPath("$.[*].price").value(hasItem(DEFAULT_PRICE.intValue())));
     }
     
     @Test
@@ -270,9 +322,7 @@ public class ArticleResourceIT {
             .andExpect(jsonPath("$.producer").value(DEFAULT_PRODUCER))
             .andExpect(jsonPath("$.amount").value(DEFAULT_AMOUNT))
             .andExpect(jsonPath("$.category").value(DEFAULT_CATEGORY.toString()))
-            .andExpect(jsonPath("$.price").value(DEFAULT_PRICE.intValue()))
-            .andExpect(jsonPath("$.pictureContentType").value(DEFAULT_PICTURE_CONTENT_TYPE))
-            .andExpect(jsonPath("$.picture").value(Base64Utils.encodeToString(DEFAULT_PICTURE)));
+            .andExpect(jsonPath("$.price").value(DEFAULT_PRICE.intValue()));
     }
 
 
@@ -685,6 +735,42 @@ public class ArticleResourceIT {
         defaultArticleShouldBeFound("price.greaterThan=" + SMALLER_PRICE);
     }
 
+    @Test
+    @Transactional
+    public void getAllArticlesByCursor() throws Exception {
+        // Initialize the database
+        Article first = articleRepository.saveAndFlush(createEntity(em));
+        Article second = articleRepository.saveAndFlush(createEntity(em));
+        Article third = articleRepository.saveAndFlush(createEntity(em));
+
+        // Get the first page, sorted by id
+        String link = restArticleMockMvc.perform(get("/api/articles?size=2&description.equals=" + DEFAULT_DESCRIPTION))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(contains(first.getId().intValue(), second.getId().intValue())))
+            .andReturn().getResponse().getHeader(HttpHeaders.LINK);
+
+        // Follow the link to the last page
+        restArticleMockMvc.perform(get(URI.create(link.substring(link.indexOf('<') + 1, link.indexOf('>')))))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(contains(third.getId().intValue())))
+            .andExpect(header().doesNotExist(HttpHeaders.LINK));
+    }
+
+    @Test
+    @Transactional
+    public void getAllArticleSummaries() throws Exception {
+        // Initialize the database
+        articleRepository.saveAndFlush(article);
+
+        restArticleMockMvc.perform(get("/api/articles/_summary?id.equals=" + article.getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.[*].id").value(contains(article.getId().intValue())))
+            .andExpect(jsonPath("$.[*].description").value(contains(DEFAULT_DESCRIPTION)))
+            .andExpect(jsonPath("$.[*].category").value(contains(DEFAULT_CATEGORY.toString())))
+            .andExpect(jsonPath("$.[*].amount").doesNotExist());
+    }
+
     /**
      * Executes the search, and checks that the default entity is returned.
      */
@@ -697,9 +783,7 @@ public class ArticleResourceIT {
             .andExpect(jsonPath("$.[*].producer").value(hasItem(DEFAULT_PRODUCER)))
             .andExpect(jsonPath("$.[*].amount").value(hasItem(DEFAULT_AMOUNT)))
             .andExpect(jsonPath("$.[*].category").value(hasItem(DEFAULT_CATEGORY.toString())))
-            .andExpect(jsonPath("$.[*].price").value(hasItem(DEFAULT_PRICE.intValue())))
-            .andExpect(jsonPath("$.[*].pictureContentType").value(hasItem(DEFAULT_PICTURE_CONTENT_TYPE)))
-            .andExpect(jsonPath("$.[*].picture").value(hasItem(Base64Utils.encodeToString(DEFAULT_PICTURE))));
+            .andExpect(jsonPath("$.[*].price").value(hasItem(DEFAULT_PRICE.intValue())));
 
         // Check, that the count call also returns 1
         restArticleMockMvc.perform(get("/api/articles/count?sort=id,desc&" + filter))
@@ -750,9 +834,7 @@ public class ArticleResourceIT {
             .producer(UPDATED_PRODUCER)
             .amount(UPDATED_AMOUNT)
             .category(UPDATED_CATEGORY)
-            .price(UPDATED_PRICE)
-            .picture(UPDATED_PICTURE)
-            .pictureContentType(UPDATED_PICTURE_CONTENT_TYPE);
+            .price(UPDATED_PRICE);
 
         restArticleMockMvc.perform(put("/api/articles")
             .contentType(MediaType.APPLICATION_JSON)
@@ -768,11 +850,9 @@ public class ArticleResourceIT {
         assertThat(testArticle.getAmount()).isEqualTo(UPDATED_AMOUNT);
         assertThat(testArticle.getCategory()).isEqualTo(UPDATED_CATEGORY);
         assertThat(testArticle.getPrice()).isEqualTo(UPDATED_PRICE);
-        assertThat(testArticle.getPicture()).isEqualTo(UPDATED_PICTURE);
-        assertThat(testArticle.getPictureContentType()).isEqualTo(UPDATED_PICTURE_CONTENT_TYPE);
 
         // Validate the Article in Elasticsearch
-        verify(mockArticleSearchRepository, times(2)).save(testArticle);
+        verify(mockArticleSearchRepository, times(2)).saveAll(Collections.singletonList(testArticle));
     }
 
     @Test
@@ -791,7 +871,54 @@ public class ArticleResourceIT {
         assertThat(articleList).hasSize(databaseSizeBeforeUpdate);
 
         // Validate the Article in Elasticsearch
-        verify(mockArticleSearchRepository, times(0)).save(article);
+        verify(mockArticleSearchRepository, never()).saveAll(anyIterable());
+    }
+
+    @Test
+    @Transactional
+    public void updateAndGetArticlePicture() throws Exception {
+        // Initialize the database
+        articleRepository.saveAndFlush(article);
+        byte[] picture = TestUtil.createByteArray(16, "1");
+
+        restArticleMockMvc.perform(put("/api/articles/{id}/picture", article.getId())
+            .contentType(MediaType.IMAGE_PNG)
+            .content(picture))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.id").value(article.getId().intValue()))
+            .andExpect(jsonPath("$.pictureChecksum").isNotEmpty());
+
+        restArticleMockMvc.perform(get("/api/articles/{id}/picture", article.getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.IMAGE_PNG))
+            .andExpect(content().bytes(picture));
+
+        // The picture is not part of the article itself
+        restArticleMockMvc.perform(get("/api/articles/{id}", article.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.picture").doesNotExist());
+    }
+
+    @Test
+    @Transactional
+    public void getNonExistingArticlePicture() throws Exception {
+        // Initialize the database
+        articleRepository.saveAndFlush(article);
+
+        restArticleMockMvc.perform(get("/api/articles/{id}/picture", article.getId()))
+            .andExpect(status().isNotFound());
+        restArticleMockMvc.perform(get("/api/articles/{id}/picture", Long.MAX_VALUE))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Transactional
+    public void getArticlePictureWithUnsupportedSize() throws Exception {
+        // Initialize the database
+        articleRepository.saveAndFlush(article);
+
+        restArticleMockMvc.perform(get("/api/articles/{id}/picture?size=100", article.getId()))
+            .andExpect(status().isBadRequest());
     }
 
     @Test
@@ -812,7 +939,7 @@ public class ArticleResourceIT {
         assertThat(articleList).hasSize(databaseSizeBeforeDelete - 1);
 
         // Validate the Article in Elasticsearch
-        verify(mockArticleSearchRepository, times(1)).deleteById(article.getId());
+        verify(mockArticleSearchRepository, times(1)).deleteAllById(Collections.singletonList(article.getId()));
     }
 
     @Test
@@ -821,20 +948,155 @@ public class ArticleResourceIT {
         // Configure the mock search repository
         // Initialize the database
         articleService.save(article);
-        when(mockArticleSearchRepository.search(queryStringQuery("id:" + article.getId())))
-            .thenReturn(Collections.singletonList(article));
+        when(mockArticleSearchRepository.search(any(SearchQuery.class)))
+            .thenReturn(new PageImpl<>(Collections.singletonList(article), PageRequest.of(0, 20), 1));
 
         // Search the article
         restArticleMockMvc.perform(get("/api/_search/articles?query=id:" + article.getId()))
             .andExpect(status().isOk())
             .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(header().string("X-Total-Count", "1"))
             .andExpect(jsonPath("$.[*].id").value(hasItem(article.getId().intValue())))
             .andExpect(jsonPath("$.[*].description").value(hasItem(DEFAULT_DESCRIPTION)))
             .andExpect(jsonPath("$.[*].producer").value(hasItem(DEFAULT_PRODUCER)))
             .andExpect(jsonPath("$.[*].amount").value(hasItem(DEFAULT_AMOUNT)))
             .andExpect(jsonPath("$.[*].category").value(hasItem(DEFAULT_CATEGORY.toString())))
-            .andExpect(jsonPath("$.[*].price").value(hasItem(DEFAULT_PRICE.intValue())))
-            .andExpect(jsonPath("$.[*].pictureContentType").value(hasItem(DEFAULT_PICTURE_CONTENT_TYPE)))
-            .andExpect(jsonPath("$.[*].picture").value(hasItem(Base64Utils.encodeToString(DEFAULT_PICTURE))));
+            .andExpect(jsonPath("$.[*].price").value(hasItem(DEFAULT_PRICE.intValue())));
+
+        // Validate the search query: the requested page of the hits, without the pictures
+        ArgumentCaptor<SearchQuery> searchQuery = ArgumentCaptor.forClass(SearchQuery.class);
+        verify(mockArticleSearchRepository).search(searchQuery.capture());
+        assertThat(searchQuery.getValue().getQuery()).isInstanceOfSatisfying(QueryStringQueryBuilder.class,
+            query -> assertThat(query.queryString()).isEqualTo("id:" + article.getId()));
+        assertThat(searchQuery.getValue().getPageable().getPageNumber()).isEqualTo(0);
+        assertThat(searchQuery.getValue().getPageable().getPageSize()).isEqualTo(20);
+        assertThat(searchQuery.getValue().getSourceFilter().getExcludes()).containsExactlyInAnyOrder("picture", "pictureContentType");
+    }
+
+    @Test
+    @Transactional
+    public void searchArticleWithCursor() throws Exception {
+        // Initialize the database
+        articleService.save(article);
+        when(mockArticleSearchRepository.search(any(SearchQuery.class)))
+            .thenReturn(new PageImpl<>(Arrays.asList(article, article), PageRequest.of(0, 2), 2));
+
+        // The first page counts the hits and links to the next one
+        restArticleMockMvc.perform(get("/api/_search/articles?query=*&cursor=&size=1"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Total-Count", "2"))
+            .andExpect(header().string(HttpHeaders.LINK, containsString("rel=\"next\"")))
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$.[0].id").value(article.getId().intValue()));
+
+        // Validate the search query: sorted by id, without a range filter, asking for one more hit than the page
+        ArgumentCaptor<SearchQuery> searchQuery = ArgumentCaptor.forClass(SearchQuery.class);
+        verify(mockArticleSearchRepository).search(searchQuery.capture());
+        assertThat(searchQuery.getValue().getQuery()).isInstanceOfSatisfying(BoolQueryBuilder.class,
+            query -> assertThat(query.filter()).isEmpty());
+        assertThat(searchQuery.getValue().getElasticsearchSorts()).hasSize(1).first()
+            .isInstanceOfSatisfying(FieldSortBuilder.class, sort -> {
+                assertThat(sort.getFieldName()).isEqualTo("id");
+                assertThat(sort.order()).isEqualTo(SortOrder.ASC);
+            });
+        assertThat(searchQuery.getValue().getPageable()).isEqualTo(PageRequest.of(0, 2));
+        assertThat(searchQuery.getValue().getSourceFilter().getExcludes()).containsExactlyInAnyOrder("picture", "pictureContentType");
+    }
+
+    @Test
+    @Transactional
+    public void searchArticleAfterCursor() throws Exception {
+        // Initialize the database
+        articleService.save(article);
+        when(mockArticleSearchRepository.search(any(SearchQuery.class)))
+            .thenReturn(new PageImpl<>(Collections.singletonList(article)));
+
+        // The following pages neither count the hits nor link further than the last hit
+        restArticleMockMvc.perform(get("/api/_search/articles?query=*&size=1&cursor="
+            + Cursor.sortedBy("id").after(null, article.getId() - 1).encode()))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist("X-Total-Count"))
+            .andExpect(header().doesNotExist(HttpHeaders.LINK))
+            .andExpect(jsonPath("$.[0].id").value(article.getId().intValue()));
+        restArticleMockMvc.perform(get("/api/_search/articles?query=*&size=1&cursor="
+            + Cursor.sortedBy("id,desc").after(null, article.getId() + 1).encode()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].id").value(article.getId().intValue()));
+
+        // Validate the search queries: the hits up to the cursor are filtered out by their id
+        ArgumentCaptor<SearchQuery> searchQuery = ArgumentCaptor.forClass(SearchQuery.class);
+        verify(mockArticleSearchRepository, times(2)).search(searchQuery.capture());
+        SearchQuery ascending = searchQuery.getAllValues().get(0);
+        assertThat(((BoolQueryBuilder) ascending.getQuery()).filter()).hasSize(1).first()
+            .isInstanceOfSatisfying(RangeQueryBuilder.class, range -> {
+                assertThat(range.fieldName()).isEqualTo("id");
+                assertThat(range.from()).isEqualTo(article.getId() - 1);
+                assertThat(range.includeLower()).isFalse();
+                assertThat(range.to()).isNull();
+            });
+        assertThat(((FieldSortBuilder) ascending.getElasticsearchSorts().get(0)).order()).isEqualTo(SortOrder.ASC);
+        SearchQuery descending = searchQuery.getAllValues().get(1);
+        assertThat(((BoolQueryBuilder) descending.getQuery()).filter()).hasSize(1).first()
+            .isInstanceOfSatisfying(RangeQueryBuilder.class, range -> {
+                assertThat(range.fieldName()).isEqualTo("id");
+                assertThat(range.to()).isEqualTo(article.getId() + 1);
+                assertThat(range.includeUpper()).isFalse();
+                assertThat(range.from()).isNull();
+            });
+        assertThat(((FieldSortBuilder) descending.getElasticsearchSorts().get(0)).order()).isEqualTo(SortOrder.DESC);
+        assertThat(searchQuery.getAllValues()).allSatisfy(query -> assertThat(query.getPageable()).isEqualTo(PageRequest.of(0, 2)));
+    }
+
+    @Test
+    public void searchArticleBeyondTheResultWindow() throws Exception {
+        when(mockArticleSearchRepository.search(any(SearchQuery.class)))
+            .thenReturn(new PageImpl<>(Collections.emptyList(), PageRequest.of(499, 20), 0));
+
+        // The last page of the result window is searched
+        restArticleMockMvc.perform(get("/api/_search/articles?query=*&page=499&size=20"))
+            .andExpect(status().isOk());
+        ArgumentCaptor<SearchQuery> searchQuery = ArgumentCaptor.forClass(SearchQuery.class);
+        verify(mockArticleSearchRepository).search(searchQuery.capture());
+        Pageable pageable = searchQuery.getValue().getPageable();
+        assertThat(pageable.getOffset() + pageable.getPageSize()).isEqualTo(SearchQueries.MAX_RESULT_WINDOW);
+
+        // The next one is rejected without a search
+        restArticleMockMvc.perform(get("/api/_search/articles?query=*&page=500&size=20"))
+            .andExpect(status().isBadRequest());
+        verify(mockArticleSearchRepository, times(1)).search(any(SearchQuery.class));
+    }
+
+    @Test
+    @Transactional
+    public void suggestArticle() throws Exception {
+        // Initialize the database
+        articleService.save(article);
+        when(mockArticleSearchRepository.search(any(SearchQuery.class)))
+            .thenReturn(new PageImpl<>(Collections.singletonList(article)));
+
+        // Suggest the article
+        restArticleMockMvc.perform(get("/api/_suggest/articles?query=" + DEFAULT_DESCRIPTION.substring(0, 2) + "&size=5"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.[0].id").value(article.getId().intValue()))
+            .andExpect(jsonPath("$.[0].description").value(DEFAULT_DESCRIPTION))
+            .andExpect(jsonPath("$.[0].producer").value(DEFAULT_PRODUCER))
+            .andExpect(jsonPath("$.[0].price").doesNotExist());
+
+        // Validate the search query: the prefixes of the suggested fields, which only are in the source of the hits
+        ArgumentCaptor<SearchQuery> searchQuery = ArgumentCaptor.forClass(SearchQuery.class);
+        verify(mockArticleSearchRepository).search(searchQuery.capture());
+        assertThat(searchQuery.getValue().getQuery()).isInstanceOfSatisfying(MultiMatchQueryBuilder.class,
+            query -> assertThat(query.fields()).containsOnlyKeys("description.suggest", "producer.suggest"));
+        assertThat(searchQuery.getValue().getPageable()).isEqualTo(PageRequest.of(0, 5));
+        assertThat(searchQuery.getValue().getSourceFilter().getIncludes()).containsExactlyInAnyOrder("description", "producer", "id");
+    }
+
+    @Test
+    public void suggestArticleWithInvalidSize() throws Exception {
+        restArticleMockMvc.perform(get("/api/_suggest/articles?query=a&size=0"))
+            .andExpect(status().isBadRequest());
+
+        verify(mockArticleSearchRepository, never()).search(any(SearchQuery.class));
     }
 }
@@ -0,0 +1,61 @@
+package de.offersapp.aldiapi.web.rest;
+
+import de.offersapp.aldiapi.AldiApiApp;
+import de.offersapp.aldiapi.security.AuthoritiesConstants;
+import de.offersapp.aldiapi.service.crawler.CrawlCheckpoint;
+import de.offersapp.aldiapi.service.crawler.CrawlCheckpointStore;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Integration tests for the {@link CrawlResource} REST controller.
+ */
+@SpringBootTest(classes = AldiApiApp.class)
+@AutoConfigureMockMvc
+public class CrawlResourceIT {
+
+    /**
+     * Not part of the replayed archive, so it fails again when it is retried.
+     */
+    private static final String MISSING_PAGE = "/de/angebote/missing.html";
+
+    @Autowired
+    private CrawlCheckpointStore crawlCheckpointStore;
+
+    @Autowired
+    private MockMvc restCrawlMockMvc;
+
+    @Test
+    @WithMockUser(authorities = AuthoritiesConstants.ADMIN)
+    public void retryFailedPages() throws Exception {
+        CrawlCheckpoint checkpoint = crawlCheckpointStore.start(Collections.singletonList(MISSING_PAGE));
+        crawlCheckpointStore.markFailed(checkpoint, MISSING_PAGE, new IOException("Read timed out"));
+
+        restCrawlMockMvc.perform(post("/api/admin/crawl/_retry"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.inserted").value(0))
+            .andExpect(jsonPath("$.deleted").value(0));
+
+        CrawlCheckpoint.PageState page = crawlCheckpointStore.load().get().getPages().get(MISSING_PAGE);
+        assertThat(page.getStatus()).isEqualTo(CrawlCheckpoint.PageStatus.FAILED);
+        assertThat(page.getAttempts()).isEqualTo(2);
+    }
+
+    @Test
+    @WithMockUser
+    public void retryFailedPagesRequiresAdmin() throws Exception {
+        restCrawlMockMvc.perform(post("/api/admin/crawl/_retry"))
+            .andExpect(status().isForbidden());
+    }
+}
@@ -1,36 +1,51 @@
 package de.offersapp.aldiapi.web.rest;
 
 import de.offersapp.aldiapi.AldiApiApp;
+import de.offersapp.aldiapi.config.RecordingStatementInspector;
 import de.offersapp.aldiapi.domain.Offer;
 import de.offersapp.aldiapi.domain.Article;
 import de.offersapp.aldiapi.repository.OfferRepository;
 import de.offersapp.aldiapi.repository.search.OfferSearchRepository;
 import de.offersapp.aldiapi.service.OfferService;
+import de.offersapp.aldiapi.service.dto.Cursor;
 import de.offersapp.aldiapi.service.dto.OfferCriteria;
 import de.offersapp.aldiapi.service.OfferQueryService;
 
+import org.elasticsearch.index.query.BoolQueryBuilder;
+import org.elasticsearch.index.query.RangeQueryBuilder;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.elasticsearch.core.query.SearchQuery;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 import javax.persistence.EntityManager;
 import java.math.BigDecimal;
+import java.net.URI;
 import java.time.LocalDate;
 import java.time.ZoneId;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.elasticsearch.index.query.QueryBuilders.queryStringQuery;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -138,7 +153,7 @@ public class OfferResourceIT {
         assertThat(testOffer.getEndDate()).isEqualTo(DEFAULT_END_DATE);
 
         // Validate the Offer in Elasticsearch
-        verify(mockOfferSearchRepository, times(1)).save(testOffer);
+        verify(mockOfferSearchRepository, times(1)).saveAll(Collections.singletonList(testOffer));
     }
 
     @Test
@@ -160,10 +175,58 @@ public class OfferResourceIT {
         assertThat(offerList).hasSize(databaseSizeBeforeCreate);
 
         // Validate the Offer in Elasticsearch
-        verify(mockOfferSearchRepository, times(0)).save(offer);
+        verify(mockOfferSearchRepository, never()).saveAll(anyIterable());
     }
 
 
+    @Test
+    @Transactional
+    public void bulkSaveOffers() throws Exception {
+        // Initialize the database
+        offerRepository.saveAndFlush(offer);
+        int databaseSizeBeforeBulk = offerRepository.findAll().size();
+
+        Offer newOffer = createUpdatedEntity(em);
+        Offer invalidOffer = createEntity(em);
+        invalidOffer.setAmount(null);
+        Offer updatedOffer = createUpdatedEntity(em);
+        updatedOffer.setId(offer.getId());
+        Offer unknownOffer = createEntity(em);
+        unknownOffer.setId(Long.MAX_VALUE);
+
+        restOfferMockMvc.perform(post("/api/offers/_bulk")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(Arrays.asList(newOffer, invalidOffer, updatedOffer, unknownOffer))))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].index").value(contains(0, 1, 2, 3)))
+            .andExpect(jsonPath("$.[*].status").value(contains(201, 400, 200, 404)))
+            .andExpect(jsonPath("$.[1].fieldErrors.[0].field").value("amount"))
+            .andExpect(jsonPath("$.[2].id").value(offer.getId().intValue()));
+
+        // Validate the Offers in the database
+        List<Offer> offerList = offerRepository.findAll();
+        assertThat(offerList).hasSize(databaseSizeBeforeBulk + 1);
+
+        // Validate the Offers in Elasticsearch, indexed in a single request
+        verify(mockOfferSearchRepository, times(1)).saveAll(anyIterable());
+    }
+
+    @Test
+    @Transactional
+    public void bulkSaveOffersWithNullItem() throws Exception {
+        int databaseSizeBeforeBulk = offerRepository.findAll().size();
+
+        restOfferMockMvc.perform(post("/api/offers/_bulk")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(Arrays.asList(createUpdatedEntity(em), null))))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("error.bulkitemnull"));
+
+        // Validate that no Offer was saved
+        assertThat(offerRepository.findAll()).hasSize(databaseSizeBeforeBulk);
+        verify(mockOfferSearchRepository, never()).saveAll(anyIterable());
+    }
+
     @Test
     @Transactional
     public void checkAdvantageIsRequired() throws Exception {
@@ -668,6 +731,107 @@ public class OfferResourceIT {
         defaultOfferShouldNotBeFound("articleId.equals=" + (articleId + 1));
     }
 
+    @Test
+    @Transactional
+    public void getAllOffersFetchesArticlesInOneQuery() throws Exception {
+        // Initialize the database with offers of distinct articles
+        for (int i = 0; i < 3; i++) {
+            Article article = ArticleResourceIT.createEntity(em);
+            em.persist(article);
+            em.persist(createEntity(em).article(article));
+        }
+        em.flush();
+        em.clear();
+
+        RecordingStatementInspector.start();
+        restOfferMockMvc.perform(get("/api/offers?amount.equals=" + DEFAULT_AMOUNT))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].article.description", hasSize(3)));
+        assertThat(RecordingStatementInspector.stop()).hasSize(1);
+
+        // A page needs a separate count query, still independent of the number of offers
+        RecordingStatementInspector.start();
+        OfferCriteria criteria = new OfferCriteria();
+        Page<Offer> page = offerQueryService.findByCriteria(criteria, PageRequest.of(0, 2));
+        assertThat(page.getTotalElements()).isEqualTo(3);
+        assertThat(page.getContent()).extracting(result -> result.getArticle().getDescription()).doesNotContainNull();
+        assertThat(RecordingStatementInspector.stop()).hasSize(2);
+    }
+
+    @Test
+    @Transactional
+    public void getAllOffersByCursor() throws Exception {
+        // Initialize the database
+        Offer first = offerRepository.saveAndFlush(createEntity(em).endDate(LocalDate.of(2026, 10, 8)));
+        Offer second = offerRepository.saveAndFlush(createEntity(em).endDate(LocalDate.of(2026, 10, 1)));
+        Offer third = offerRepository.saveAndFlush(createEntity(em).endDate(null));
+
+        // Get the first page, offers without end date coming last in descending order
+        String link = restOfferMockMvc.perform(get("/api/offers?size=2&sort=endDate,desc&amount.equals=" + DEFAULT_AMOUNT))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(contains(first.getId().intValue(), second.getId().intValue())))
+            .andExpect(header().string(HttpHeaders.LINK, containsString("rel=\"next\"")))
+            .andReturn().getResponse().getHeader(HttpHeaders.LINK);
+
+        // Follow the link to the last page
+        restOfferMockMvc.perform(get(URI.create(link.substring(link.indexOf('<') + 1, link.indexOf('>')))))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(contains(third.getId().intValue())))
+            .andExpect(header().doesNotExist(HttpHeaders.LINK));
+
+        // Sorting by a property without index is rejected
+        restOfferMockMvc.perform(get("/api/offers?size=2&sort=amount"))
+            .andExpect(status().isBadRequest());
+        restOfferMockMvc.perform(get("/api/offers?cursor=invalid"))
+            .andExpect(status().isBadRequest());
+        // A well-formed cursor with a tampered value is rejected
+        restOfferMockMvc.perform(get("/api/offers?cursor=" + Cursor.sortedBy("endDate").after("not-a-date", 1L).encode()))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("error.cursorinvalid"));
+    }
+
+    @Test
+    public void streamAllOffers() throws Exception {
+        // Initialize the database, committing as the offers are streamed by another thread
+        List<Offer> offers = offerRepository.saveAll(Arrays.asList(createEntity(em), createEntity(em).amount(UPDATED_AMOUNT)));
+        try {
+            MvcResult result = restOfferMockMvc.perform(get("/api/offers/_stream?id.in=" + offers.get(0).getId() + "," + offers.get(1).getId()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+            String[] lines = restOfferMockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString().split("\n");
+            assertThat(lines).hasSize(2);
+            assertThat(lines[0]).contains("\"id\":" + offers.get(0).getId(), DEFAULT_AMOUNT);
+            assertThat(lines[1]).contains("\"id\":" + offers.get(1).getId(), UPDATED_AMOUNT);
+        } finally {
+            offerRepository.deleteAll(offers);
+        }
+    }
+
+    @Test
+    @Transactional
+    public void getAllOfferSummaries() throws Exception {
+        // Initialize the database
+        Article article = ArticleResourceIT.createEntity(em);
+        em.persist(article);
+        offerRepository.saveAndFlush(offer.article(article));
+        em.clear();
+
+        RecordingStatementInspector.start();
+        restOfferMockMvc.perform(get("/api/offers/_summary?id.equals=" + offer.getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.[*].id").value(contains(offer.getId().intValue())))
+            .andExpect(jsonPath("$.[*].amount").value(contains(DEFAULT_AMOUNT)))
+            .andExpect(jsonPath("$.[*].endDate").value(contains(DEFAULT_END_DATE.toString())))
+            .andExpect(jsonPath("$.[*].articleId").value(contains(article.getId().intValue())))
+            .andExpect(jsonPath("$.[*].articleDescription").value(contains(article.getDescription())));
+        assertThat(RecordingStatementInspector.stop()).hasSize(1);
+    }
+
     /**
      * Executes the search, and checks that the default entity is returned.
      */
@@ -746,7 +910,7 @@ public class OfferResourceIT {
         assertThat(testOffer.getEndDate()).isEqualTo(UPDATED_END_DATE);
 
         // Validate the Offer in Elasticsearch
-        verify(mockOfferSearchRepository, times(2)).save(testOffer);
+        verify(mockOfferSearchRepository, times(2)).saveAll(Collections.singletonList(testOffer));
     }
 
     @Test
@@ -765,7 +929,7 @@ public class OfferResourceIT {
         assertThat(offerList).hasSize(databaseSizeBeforeUpdate);
 
         // Validate the Offer in Elasticsearch
-        verify(mockOfferSearchRepository, times(0)).save(offer);
+        verify(mockOfferSearchRepository, never()).saveAll(anyIterable());
     }
 
     @Test
@@ -786,7 +950,7 @@ public class OfferResourceIT {
         assertThat(offerList).hasSize(databaseSizeBeforeDelete - 1);
 
         // Validate the Offer in Elasticsearch
-        verify(mockOfferSearchRepository, times(1)).deleteById(offer.getId());
+        verify(mockOfferSearchRepository, times(1)).deleteAllById(Collections.singletonList(offer.getId()));
     }
 
     @Test
@@ -795,17 +959,54 @@ public class OfferResourceIT {
         // Configure the mock search repository
         // Initialize the database
         offerService.save(offer);
-        when(mockOfferSearchRepository.search(queryStringQuery("id:" + offer.getId())))
-            .thenReturn(Collections.singletonList(offer));
+        when(mockOfferSearchRepository.search(any(SearchQuery.class)))
+            .thenReturn(new PageImpl<>(Collections.singletonList(offer), PageRequest.of(0, 20), 1));
 
         // Search the offer
         restOfferMockMvc.perform(get("/api/_search/offers?query=id:" + offer.getId()))
             .andExpect(status().isOk())
             .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(header().string("X-Total-Count", "1"))
             .andExpect(jsonPath("$.[*].id").value(hasItem(offer.getId().intValue())))
             .andExpect(jsonPath("$.[*].advantage").value(hasItem(DEFAULT_ADVANTAGE.intValue())))
             .andExpect(jsonPath("$.[*].amount").value(hasItem(DEFAULT_AMOUNT)))
             .andExpect(jsonPath("$.[*].startDate").value(hasItem(DEFAULT_START_DATE.toString())))
             .andExpect(jsonPath("$.[*].endDate").value(hasItem(DEFAULT_END_DATE.toString())));
+
+        // Validate the search query: the requested page of the hits, without the pictures of the articles
+        ArgumentCaptor<SearchQuery> searchQuery = ArgumentCaptor.forClass(SearchQuery.class);
+        verify(mockOfferSearchRepository).search(searchQuery.capture());
+        assertThat(searchQuery.getValue().getPageable().getPageNumber()).isEqualTo(0);
+        assertThat(searchQuery.getValue().getPageable().getPageSize()).isEqualTo(20);
+        assertThat(searchQuery.getValue().getSourceFilter().getExcludes())
+            .containsExactlyInAnyOrder("article.picture", "article.pictureContentType");
+    }
+
+    @Test
+    @Transactional
+    public void searchOfferAfterCursor() throws Exception {
+        // Initialize the database
+        offerService.save(offer);
+        when(mockOfferSearchRepository.search(any(SearchQuery.class)))
+            .thenReturn(new PageImpl<>(Collections.singletonList(offer)));
+
+        restOfferMockMvc.perform(get("/api/_search/offers?query=*&size=5&cursor="
+            + Cursor.sortedBy("id").after(null, offer.getId() - 1).encode()))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist("X-Total-Count"))
+            .andExpect(jsonPath("$.[0].id").value(offer.getId().intValue()));
+
+        // Validate the search query: the hits up to the cursor are filtered out by their id
+        ArgumentCaptor<SearchQuery> searchQuery = ArgumentCaptor.forClass(SearchQuery.class);
+        verify(mockOfferSearchRepository).search(searchQuery.capture());
+        assertThat(((BoolQueryBuilder) searchQuery.getValue().getQuery()).filter()).hasSize(1).first()
+            .isInstanceOfSatisfying(RangeQueryBuilder.class, range -> {
+                assertThat(range.fieldName()).isEqualTo("id");
+                assertThat(range.from()).isEqualTo(offer.getId() - 1);
+                assertThat(range.includeLower()).isFalse();
+            });
+        assertThat(searchQuery.getValue().getPageable()).isEqualTo(PageRequest.of(0, 6));
+        assertThat(searchQuery.getValue().getSourceFilter().getExcludes())
+            .containsExactlyInAnyOrder("article.picture", "article.pictureContentType");
     }
 }
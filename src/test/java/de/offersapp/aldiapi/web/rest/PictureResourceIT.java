@@ -0,0 +1,112 @@
+package de.offersapp.aldiapi.web.rest;
+
+import de.offersapp.aldiapi.AldiApiApp;
+import de.offersapp.aldiapi.domain.Picture;
+import de.offersapp.aldiapi.service.PictureService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Integration tests for the {@link PictureResource} REST controller.
+ */
+@SpringBootTest(classes = AldiApiApp.class)
+@AutoConfigureMockMvc
+@WithMockUser
+@Transactional
+public class PictureResourceIT {
+
+    @Autowired
+    private PictureService pictureService;
+
+    @Autowired
+    private MockMvc restPictureMockMvc;
+
+    private byte[] data;
+
+    private Picture picture;
+
+    @BeforeEach
+    public void initTest() throws IOException {
+        BufferedImage image = new BufferedImage(640, 480, BufferedImage.TYPE_INT_RGB);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        data = out.toByteArray();
+        picture = pictureService.store(data, MediaType.IMAGE_PNG_VALUE);
+    }
+
+    @Test
+    public void getPicture() throws Exception {
+        restPictureMockMvc.perform(get("/api/pictures/{checksum}", picture.getChecksum()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.IMAGE_PNG))
+            .andExpect(header().string(HttpHeaders.ETAG, "\"" + picture.getChecksum() + "\""))
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("max-age=31536000")))
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("immutable")))
+            .andExpect(content().bytes(data));
+    }
+
+    @Test
+    public void getPictureNotModified() throws Exception {
+        restPictureMockMvc.perform(get("/api/pictures/{checksum}", picture.getChecksum())
+            .header(HttpHeaders.IF_NONE_MATCH, "\"" + picture.getChecksum() + "\""))
+            .andExpect(status().isNotModified());
+    }
+
+    @Test
+    public void getPictureRange() throws Exception {
+        byte[] range = restPictureMockMvc.perform(get("/api/pictures/{checksum}", picture.getChecksum())
+            .header(HttpHeaders.RANGE, "bytes=0-9"))
+            .andExpect(status().isPartialContent())
+            .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 0-9/" + data.length))
+            .andReturn().getResponse().getContentAsByteArray();
+
+        assertThat(range).hasSize(10).isEqualTo(Arrays.copyOf(data, 10));
+    }
+
+    @Test
+    public void getThumbnail() throws Exception {
+        byte[] thumbnail = restPictureMockMvc.perform(get("/api/pictures/{checksum}?size=128", picture.getChecksum()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.IMAGE_JPEG))
+            .andExpect(header().string(HttpHeaders.ETAG, "\"" + picture.getChecksum() + "-128\""))
+            .andReturn().getResponse().getContentAsByteArray();
+
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(thumbnail));
+        assertThat(image.getWidth()).isEqualTo(128);
+        assertThat(image.getHeight()).isEqualTo(96);
+    }
+
+    @Test
+    public void getUnsupportedThumbnail() throws Exception {
+        restPictureMockMvc.perform(get("/api/pictures/{checksum}?size=100", picture.getChecksum()))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void getNonExistingPicture() throws Exception {
+        restPictureMockMvc.perform(get("/api/pictures/{checksum}", "0000000000000000000000000000000000000000000000000000000000000000"))
+            .andExpect(status().isNotFound());
+        restPictureMockMvc.perform(get("/api/pictures/{checksum}", "not-a-checksum"))
+            .andExpect(status().isNotFound());
+    }
+}
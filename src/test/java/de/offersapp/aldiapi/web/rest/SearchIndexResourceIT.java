@@ -0,0 +1,42 @@
+package de.offersapp.aldiapi.web.rest;
+
+import de.offersapp.aldiapi.AldiApiApp;
+import de.offersapp.aldiapi.security.AuthoritiesConstants;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Integration tests for the {@link SearchIndexResource} REST controller.
+ */
+@SpringBootTest(classes = AldiApiApp.class)
+@AutoConfigureMockMvc
+public class SearchIndexResourceIT {
+
+    @Autowired
+    private MockMvc restSearchIndexMockMvc;
+
+    @Test
+    @WithMockUser(authorities = AuthoritiesConstants.ADMIN)
+    public void getReindexStatus() throws Exception {
+        restSearchIndexMockMvc.perform(get("/api/admin/search-index/_reindex"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.state").exists());
+    }
+
+    @Test
+    @WithMockUser
+    public void reindexRequiresAdmin() throws Exception {
+        restSearchIndexMockMvc.perform(post("/api/admin/search-index/_reindex"))
+            .andExpect(status().isForbidden());
+        restSearchIndexMockMvc.perform(get("/api/admin/search-index/_reindex"))
+            .andExpect(status().isForbidden());
+    }
+}